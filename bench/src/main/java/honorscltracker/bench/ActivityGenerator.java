@@ -0,0 +1,187 @@
+package honorscltracker.bench;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.Dates;
+import honorscltracker.core.io.CLWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic comp learning activities shaped like a real tracker's,
+ * for benchmarking.  A few organizations account for most activities (their
+ * popularity follows a Zipf distribution), each organization has one to three
+ * contacts, dates fall within the academic year of each activity, hours are
+ * mostly short shifts in quarter hours, and details are HTML whose length
+ * varies from nothing to a long write-up.  The same seed always generates the
+ * same activities, so results can be compared between releases.
+ *
+ * Usage: <code>java -cp target/benchmarks.jar honorscltracker.bench.ActivityGenerator
+ * activities file.cl [seed]</code>
+ * @author Connor Pierce
+ */
+public class ActivityGenerator {
+    private static final String[] KINDS = {"Food Bank", "Literacy Project", "Animal Shelter",
+            "Habitat for Humanity", "Hospital", "Tutoring Center", "Museum", "Library",
+            "Youth League", "Senior Center", "Nature Preserve", "Soup Kitchen"};
+    private static final String[] PLACES = {"Rochester", "Henrietta", "Brighton", "Pittsford",
+            "Greece", "Webster", "Irondequoit", "Penfield", "Fairport", "Chili", "Gates"};
+    private static final String[] FIRST = {"Mary", "John", "Patricia", "Robert", "Linda",
+            "Michael", "Barbara", "David", "Susan", "James", "Karen", "Daniel", "Lisa", "Mark"};
+    private static final String[] LAST = {"Smith", "Johnson", "Williams", "Brown", "Jones",
+            "Miller", "Davis", "Garcia", "Wilson", "Anderson", "Taylor", "Thomas", "Moore"};
+    private static final String[] WORDS = ("helped set up the event and greeted visitors at "
+            + "the front desk sorted donations into boxes for delivery read with children "
+            + "during the afternoon session cleaned the kitchen after dinner service walked "
+            + "dogs and cleaned kennels organized the shelves in the back room assisted the "
+            + "coordinator with paperwork painted the hallway and trimmed the garden").split(" ");
+    private static final double ZIPF_EXPONENT = 1.1;
+    private final Random random;
+    private final String[] descs;
+    private final Contact[][] contacts;
+    private final double[] popularity;
+
+    /**
+     * Creates a generator for about the given number of activities.  Larger
+     * data sets have more organizations, as a larger tracker would.
+     * @param activities the number of activities that will be generated
+     * @param seed the seed of the random numbers
+     */
+    public ActivityGenerator(int activities, long seed) {
+        random = new Random(seed);
+        int orgs = Math.max(20, activities / 250);
+        descs = new String[orgs];
+        contacts = new Contact[orgs][];
+        popularity = new double[orgs];
+        double sum = 0;
+        for(int i = 0; i < orgs; i++) {
+            descs[i] = PLACES[i % PLACES.length] + " " + KINDS[(i / PLACES.length) % KINDS.length]
+                    + ((i < PLACES.length * KINDS.length) ? "" : " #" + (i / (PLACES.length * KINDS.length) + 1));
+            contacts[i] = new Contact[1 + random.nextInt(3)];
+            for(int j = 0; j < contacts[i].length; j++) {
+                String first = pick(FIRST), last = pick(LAST);
+                contacts[i][j] = new Contact(first + " " + last,
+                        first.toLowerCase() + "." + last.toLowerCase() + i + "@example.org",
+                        String.format("1 (585) %03d-%04d", 200 + random.nextInt(800), random.nextInt(10000)));
+            }
+            sum += 1 / Math.pow(i + 1, ZIPF_EXPONENT);
+            popularity[i] = sum;
+        }
+        for(int i = 0; i < orgs; i++) {
+            popularity[i] /= sum;
+        }
+    }
+
+    /**
+     * Generates one activity.
+     * @return a new activity
+     */
+    public CLActivity next() {
+        int org = pickOrganization();
+        int startYr = 2000 + random.nextInt(15);
+        //September through May of the academic year, weighted towards term time
+        int month = 9 + random.nextInt(9);
+        int year = (month > 12) ? startYr + 1 : startYr;
+        month = (month > 12) ? month - 12 : month;
+        CLActivity a = new CLActivity();
+        a.setDesc(descs[org]);
+        a.setStartYr(startYr);
+        a.setEpochDay(Dates.of(year, month, 1 + random.nextInt(28)));
+        a.setContact(pick(contacts[org]));
+        double r = random.nextDouble();
+        a.setHours((r < 0.05) ? 8 : (1 + random.nextInt(13)) * 0.25);
+        a.setDetails(details());
+        return a;
+    }
+
+    /**
+     * Generates the given number of activities.
+     * @param n the number of activities
+     * @return the new activities
+     */
+    public List<CLActivity> generate(int n) {
+        List<CLActivity> list = new ArrayList<>(n);
+        for(int i = 0; i < n; i++) {
+            list.add(next());
+        }
+        return list;
+    }
+
+    /**
+     * Writes the given activities to a .cl file.
+     * @param activities the activities to write
+     * @param f the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Iterable<CLActivity> activities, File f) throws IOException {
+        try(CLWriter w = new CLWriter(new FileWriter(f))) {
+            for(CLActivity a : activities) {
+                w.write(a);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length < 2) {
+            System.out.println("Usage: java honorscltracker.bench.ActivityGenerator activities file.cl [seed]");
+            return;
+        }
+        int n = Integer.parseInt(args[0]);
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1;
+        File f = new File(args[1]);
+        write(new ActivityGenerator(n, seed).generate(n), f);
+        System.out.printf("Wrote %d activities to %s (%.1f MB)%n", n, f, f.length() / 1048576.0);
+    }
+
+    private int pickOrganization() {
+        double r = random.nextDouble();
+        int lo = 0, hi = popularity.length - 1;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(popularity[mid] < r) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * About a tenth of activities have no details, most have a sentence or
+     * two, and a few have a long write-up of several paragraphs
+     */
+    private String details() {
+        double r = random.nextDouble();
+        if(r < 0.1) {
+            return "";
+        }
+        int paragraphs = (r < 0.95) ? 1 : 3 + random.nextInt(6);
+        StringBuilder b = new StringBuilder();
+        for(int p = 0; p < paragraphs; p++) {
+            b.append("<p>");
+            int words = 8 + random.nextInt(40);
+            for(int w = 0; w < words; w++) {
+                if(w > 0) {
+                    b.append(' ');
+                }
+                if(random.nextInt(30) == 0) {
+                    b.append("<b>").append(pick(WORDS)).append("</b>");
+                } else {
+                    b.append(pick(WORDS));
+                }
+            }
+            b.append(".</p>");
+        }
+        return b.toString();
+    }
+
+    private <T> T pick(T[] a) {
+        return a[random.nextInt(a.length)];
+    }
+
+}
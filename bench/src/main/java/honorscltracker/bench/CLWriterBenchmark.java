@@ -0,0 +1,106 @@
+package honorscltracker.bench;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.Dates;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import honorscltracker.core.io.CLWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares writing a tracker of synthetic activities with
+ * <code>CLWriter</code> against the string concatenation /
+ * <code>PrintWriter</code> implementation that <code>Main.writeToFile</code>
+ * used previously.  Each operation writes the whole tracker to a file.
+ *
+ * Usage: <code>java -jar target/benchmarks.jar CLWriterBenchmark -prof gc</code>
+ * @author Connor Pierce
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CLWriterBenchmark {
+    /**
+     * Number of activities in the tracker.
+     */
+    @Param({"100000"})
+    public int size;
+
+    private final SimpleDateFormat format = new SimpleDateFormat("M/d/yyyy");
+    private YearList years;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        years = new YearList();
+        for(CLActivity a : new ActivityGenerator(size, 1).generate(size)) {
+            years.addData(a);
+        }
+        file = File.createTempFile("clbench", ".cl");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public File clWriter() throws IOException {
+        try(CLWriter w = new CLWriter(new FileWriter(file))) {
+            w.write(years);
+        }
+        return file;
+    }
+
+    /*
+     * Copy of the original Main.writeToFile, kept as the baseline
+     */
+    @Benchmark
+    public File legacy() throws IOException {
+        try(PrintWriter p = new PrintWriter(file)) {
+            for(Year y : years) {
+                for(String d: y.getAllDescs()) {
+                    for(CLActivity j : y.getCLActivities(d)) {
+                        String line = "~Activity~\n";
+                        line += "desc="+d+"\n";
+                        line += "date="+format.format(Dates.toDate(j.getEpochDay()))+"\n";
+                        line += "year="+j.getStartYr()+"\n";
+                        Contact contact = j.getContact();
+                        line += "contactname="+contact.getName()+"\n";
+                        line += "contactemail="+contact.getEmail()+"\n";
+                        line += "contactphone="+contact.getPhone()+"\n";
+                        line += "hours="+j.getHours()+"\n";
+                        line += "~~Details~~\n";
+                        line += j.getDetails()+"\n~~/Details~~\n~/Activity~";
+                        p.println(line);
+                        p.println();
+                    }
+                }
+            }
+        }
+        return file;
+    }
+
+}
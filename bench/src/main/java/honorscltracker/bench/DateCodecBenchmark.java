@@ -0,0 +1,115 @@
+package honorscltracker.bench;
+
+import honorscltracker.core.DateCodec;
+import honorscltracker.core.Dates;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares <code>DateCodec</code> against the shared
+ * <code>SimpleDateFormat("M/d/yyyy")</code> that <code>Main.format</code>
+ * used previously, formatting and parsing the same dates on one thread, and
+ * parsing them on every core.  The <code>SimpleDateFormat</code> is not
+ * thread-safe, so each thread has its own.  Single-threaded scores are the
+ * time per date; the scores on every core are dates per second, summed over
+ * the threads.
+ *
+ * Usage: <code>java -jar target/benchmarks.jar DateCodecBenchmark -prof gc</code>
+ * @author Connor Pierce
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class DateCodecBenchmark {
+    private static final int DATES = 1024;
+    private static final int[] days = new int[DATES];
+    private static final String[] text = new String[DATES];
+
+    static {
+        for(int i = 0; i < DATES; i++) {
+            days[i] = Dates.of(2000 + (i % 15), 1 + (i % 12), 1 + (i % 28));
+            text[i] = DateCodec.format(days[i]);
+        }
+    }
+
+    private final SimpleDateFormat format = new SimpleDateFormat("M/d/yyyy");
+    private final GregorianCalendar calendar = new GregorianCalendar();
+    private final StringBuilder builder = new StringBuilder(16);
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public long formatLegacy() {
+        long sum = 0;
+        for(int d : days) {
+            sum += format.format(Dates.toDate(d)).length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public long formatCodec() {
+        long sum = 0;
+        for(int d : days) {
+            builder.setLength(0);
+            sum += DateCodec.format(d, builder).length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public long parseLegacy() throws ParseException {
+        long sum = 0;
+        for(String s : text) {
+            calendar.setTime(format.parse(s));
+            sum += Dates.of(calendar);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    public long parseCodec() throws ParseException {
+        long sum = 0;
+        for(String s : text) {
+            sum += DateCodec.parse(s);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    @Threads(Threads.MAX)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long parseLegacyAllCores() throws ParseException {
+        return parseLegacy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DATES)
+    @Threads(Threads.MAX)
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long parseCodecAllCores() throws ParseException {
+        return parseCodec();
+    }
+
+}
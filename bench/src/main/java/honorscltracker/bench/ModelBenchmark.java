@@ -0,0 +1,134 @@
+package honorscltracker.bench;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.YearList;
+import honorscltracker.core.io.CLFiles;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading, saving and editing a tracker of synthetic activities
+ * from {@link ActivityGenerator}, at each of the sizes in {@link #size}:
+ * <ul>
+ * <li><code>load</code>: <code>CLFiles.load</code> of a .cl file into a new
+ * <code>YearList</code>, as when a file is opened;</li>
+ * <li><code>save</code>: <code>CLFiles.save</code> of every activity, as when
+ * progress is saved;</li>
+ * <li><code>addData</code>: adding every activity, one at a time, to a new
+ * <code>YearList</code>, as when they are entered;</li>
+ * <li><code>removeCLActivity</code>: removing every activity, one at a time
+ * and in random order, from a full <code>YearList</code>.</li>
+ * </ul>
+ * Each operation works on the whole tracker, so that adding and removing
+ * single activities, which take well under a microsecond, are not swamped by
+ * the cost of timing them; divide by the size for the cost per activity.
+ * Scores are reported as average time (throughput is its inverse) and as a
+ * sampled latency distribution.  Run with <code>-prof gc</code> for the
+ * allocation rate and bytes allocated per operation.
+ *
+ * Usage: <code>java -jar target/benchmarks.jar ModelBenchmark -prof gc
+ * [-p size=1000,100000]</code>.  The largest size needs a heap of about 3 GB,
+ * which the forked JVM is given.
+ * @author Connor Pierce
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ModelBenchmark {
+    /**
+     * Number of activities in the tracker.
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private List<CLActivity> activities;
+    private List<CLActivity> shuffled;
+    private YearList full;
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        activities = new ActivityGenerator(size, 1).generate(size);
+        shuffled = new ArrayList<>(activities);
+        Collections.shuffle(shuffled, new Random(1));
+        full = fill(new YearList());
+        file = File.createTempFile("clbench", ".cl");
+        ActivityGenerator.write(activities, file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+        CLFiles.backupFile(file).delete();
+    }
+
+    @Benchmark
+    public YearList load() throws Exception {
+        YearList years = new YearList();
+        CLFiles.load(file, years);
+        return years;
+    }
+
+    @Benchmark
+    public File save() throws IOException {
+        CLFiles.save(full, file);
+        return file;
+    }
+
+    @Benchmark
+    public YearList addData() {
+        return fill(new YearList());
+    }
+
+    /**
+     * A full tracker for each invocation of
+     * {@link ModelBenchmark#removeCLActivity}, built outside the timing.
+     */
+    @State(Scope.Thread)
+    public static class FullTracker {
+        YearList years;
+
+        @Setup(Level.Invocation)
+        public void setUp(ModelBenchmark b) {
+            years = b.fill(new YearList());
+        }
+    }
+
+    @Benchmark
+    public YearList removeCLActivity(FullTracker t) {
+        YearList years = t.years;
+        for(CLActivity a : shuffled) {
+            years.get(a.getStartYr()).removeCLActivity(a);
+        }
+        return years;
+    }
+
+    private YearList fill(YearList years) {
+        for(CLActivity a : activities) {
+            years.addData(a);
+        }
+        return years;
+    }
+
+}
@@ -1,70 +0,0 @@
-package honorscltracker;
-
-/**
- * Describes contact information for comp learning activities.  Includes name,
- * email, and phone number.
- * @author Connor Pierce
- */
-public class Contact {
-    
-    private String name;
-
-    /**
-     * Get the value of name
-     *
-     * @return the value of name
-     */
-    public String getName() {
-        return name;
-    }
-
-    /**
-     * Set the value of name
-     *
-     * @param name new value of name
-     */
-    public void setName(String name) {
-        this.name = name;
-    }
-    
-    private String email;
-
-    /**
-     * Get the value of email
-     *
-     * @return the value of email
-     */
-    public String getEmail() {
-        return email;
-    }
-
-    /**
-     * Set the value of email
-     *
-     * @param email new value of email
-     */
-    public void setEmail(String email) {
-        this.email = email;
-    }
-
-    private String phone;
-
-    /**
-     * Get the value of phone
-     *
-     * @return the value of phone
-     */
-    public String getPhone() {
-        return phone;
-    }
-
-    /**
-     * Set the value of phone
-     *
-     * @param phone new value of phone
-     */
-    public void setPhone(String phone) {
-        this.phone = phone;
-    }
-
-}
@@ -1,27 +1,44 @@
 package honorscltracker;
 
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Tracker;
+import honorscltracker.core.UserAction;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import honorscltracker.core.io.CLFiles;
+import honorscltracker.core.io.CLJournal;
+import honorscltracker.core.io.ProgressHandler;
 import honorscltracker.graphics.DataScreen;
 import honorscltracker.graphics.DetailScreen;
 import honorscltracker.graphics.HomeScreen;
 import honorscltracker.graphics.MainScreen;
+import honorscltracker.graphics.SearchScreen;
+import honorscltracker.graphics.StatisticsScreen;
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
-import java.util.Stack;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javafx.animation.PathTransition;
+import javafx.animation.AnimationTimer;
+import javafx.animation.PauseTransition;
+import javafx.animation.TranslateTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Point2D;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.paint.*;
-import javafx.scene.shape.LineTo;
-import javafx.scene.shape.MoveTo;
-import javafx.scene.shape.Path;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
@@ -60,25 +77,40 @@ import javafx.util.Duration;
 public class Main extends Application {
     //<editor-fold defaultstate="collapsed" desc=" Vars ">
     private HashMap<String, Object> settings = new HashMap<>();
-    public static SimpleDateFormat format = new SimpleDateFormat("M/d/yyyy");
     
     private int currentYear;
-    private YearList years = new YearList();
+    private Tracker tracker = new Tracker();
     
     private HomeScreen homeScreen;
     private MainScreen mainScreen;
     private DataScreen dataScreen;
     private DetailScreen detailScreen;
+    private StatisticsScreen statisticsScreen;
+    private SearchScreen searchScreen;
     private FileChooser fileChooser;
     private Group alertBox; //TODO: add alerts
     private Group root;
 
-    private File file;
-    
-    private Stack<UserAction> undo = new Stack<>(), redo = new Stack<>();
+    private Task<Tracker> loading;
+    //loads, saves and journal writes run here, one at a time and in order
+    private final ExecutorService fileIO = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "file-io");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
     
-    private boolean unsavedChanges = false;
     private boolean showHelp = false;
+    private Stage stage;
+    private Handler helpHandler, closeHandler;
+
+    //run with -Dhonorscltracker.timing=true to log how long each phase of
+    //startup takes
+    private static final boolean TIMING = Boolean.getBoolean("honorscltracker.timing");
+    private static long launched;
     
     //</editor-fold>
     
@@ -87,6 +119,7 @@ public class Main extends Application {
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        launched = System.nanoTime();
         launch(args);
     }
     
@@ -113,6 +146,8 @@ public class Main extends Application {
     
     @Override
     public void start(final Stage primaryStage) {
+        long t = timed("JavaFX startup", launched);
+        stage = primaryStage;
         defaultSettings();
 
         primaryStage.setTitle("Comp Learning Tracker");
@@ -121,21 +156,25 @@ public class Main extends Application {
         root = new Group(); //Contains everything to be displayed
         
         //<editor-fold defaultstate="collapsed" desc="Initialize all the screens">
-        double width = (Double) settings.get("stageWidth");
-        double height = (Double) settings.get("stageHeight");
+        //the dataScreen and detailScreen are created on first use; see
+        //getDataScreen() and getDetailScreen()
         fileChooser = new FileChooser();
-        mainScreen = new MainScreen(primaryStage, settings, new Year(currentYear));
-        mainScreen.setLayoutX(width);
-        mainScreen.setLayoutY(height+2);
-        detailScreen = new DetailScreen(primaryStage, settings);
-        detailScreen.setLayoutX(2*width);
-        detailScreen.setLayoutY(height+2);
-        dataScreen = new DataScreen(primaryStage, settings, years.getYearsList());
-        dataScreen.setLayoutX(width);
-        dataScreen.setLayoutY(0);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Comp learning files", "*.cl"),
+                new FileChooser.ExtensionFilter("Comp learning snapshots",
+                        "*"+CLFiles.SNAPSHOT_EXTENSION));
+        t = timed("settings", t);
         homeScreen = new HomeScreen(primaryStage, settings);
-        homeScreen.setLayoutX(0);
-        homeScreen.setLayoutY(height+2);
+        place(homeScreen, "homescreen");
+        t = timed("homeScreen", t);
+        mainScreen = new MainScreen(primaryStage, settings, new Year(currentYear));
+        place(mainScreen, "mainscreen");
+        t = timed("mainScreen", t);
+        statisticsScreen = new StatisticsScreen(primaryStage, settings);
+        place(statisticsScreen, "statisticsscreen");
+        searchScreen = new SearchScreen(primaryStage, settings);
+        place(searchScreen, "searchscreen");
+        t = timed("statistics/searchScreen", t);
         //</editor-fold>
         
         //<editor-fold defaultstate="collapsed" desc="Action handlers">
@@ -143,11 +182,10 @@ public class Main extends Application {
         homeScreen.setOnNewFileRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                years = new YearList();
-                file = null;
+                tracker = new Tracker();
                 now();
                 updateMainScreen(currentYear);
-                switchScreens("homescreen", "mainscreen");
+                switchScreens("mainscreen");
             }
         });
         
@@ -156,7 +194,6 @@ public class Main extends Application {
         homeScreen.setOnOpenFileRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                years = new YearList();
                 try {
                     openExistingFile((String) data);
                 } catch (ParseException ex) {
@@ -170,9 +207,11 @@ public class Main extends Application {
         mainScreen.setDataScreenRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                dataScreen.setOwner(null);
-                dataScreen.updateYearCombo(years.getYearsList());
-                switchScreens("mainscreen", "datascreen");
+                DataScreen screen = getDataScreen();
+                screen.setOwner(null);
+                screen.updateYearCombo(tracker.getYears().getYearsList());
+                screen.setSuggestions(tracker.getYears().getSuggestions());
+                switchScreens("datascreen");
             }
         });
         
@@ -181,8 +220,8 @@ public class Main extends Application {
         mainScreen.setDetailRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                detailScreen.setCLActivity((CLActivity) data);
-                switchScreens("mainscreen", "detailscreen");
+                getDetailScreen().setCLActivity((CLActivity) data);
+                switchScreens("detailscreen");
             }
         });
         
@@ -191,9 +230,41 @@ public class Main extends Application {
         mainScreen.setEditCLActivityRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                dataScreen.updateYearCombo(years.getYearsList());
-                dataScreen.setOwner((CLActivity) data);
-                switchScreens("mainscreen", "datascreen");
+                DataScreen screen = getDataScreen();
+                screen.updateYearCombo(tracker.getYears().getYearsList());
+                screen.setSuggestions(tracker.getYears().getSuggestions());
+                screen.setOwner((CLActivity) data);
+                switchScreens("datascreen");
+            }
+        });
+        
+        //user is on the mainScreen, wants to see statistics for every year
+        //(clicks on the statistics button)
+        mainScreen.setStatisticsScreenRequestHandler(new Handler() {
+            @Override
+            public void action(Object data) {
+                statisticsScreen.update(tracker.getYears());
+                switchScreens("statisticsscreen");
+            }
+        });
+        
+        //user is on the mainScreen, wants to search every year (clicks on the
+        //search button)
+        mainScreen.setSearchScreenRequestHandler(new Handler() {
+            @Override
+            public void action(Object data) {
+                searchScreen.setSearchIndex(tracker.getYears().getSearchIndex());
+                switchScreens("searchscreen");
+            }
+        });
+        
+        //user is searching, wants detailScreen for one of the results (clicks
+        //on a result)
+        searchScreen.setDetailRequestHandler(new Handler() {
+            @Override
+            public void action(Object data) {
+                getDetailScreen().setCLActivity((CLActivity) data);
+                switchScreens("detailscreen");
             }
         });
         
@@ -202,10 +273,10 @@ public class Main extends Application {
         mainScreen.setHomeScreenRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                if(unsavedChanges) {
+                if(tracker.hasUnsavedChanges()) {
                     //TODO: ask for confirmation to move to new screen
                 } else {
-                    switchScreens("mainscreen", "homescreen");
+                    switchScreens("homescreen");
                 }
             }
         });
@@ -214,10 +285,13 @@ public class Main extends Application {
         mainScreen.setSaveRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                if(file == null) {
-                    file = fileChooser.showSaveDialog(primaryStage);
+                File f = tracker.getFile();
+                if(f == null) {
+                    f = fileChooser.showSaveDialog(primaryStage);
+                }
+                if(f != null) {
+                    writeToFile(f);
                 }
-                writeToFile(file);
             }
         });
         
@@ -239,64 +313,46 @@ public class Main extends Application {
             }
         });
         
-        //user is on dataScreen, clicks button to return to mainScreen
-        dataScreen.setMainScreenRequestHandler(new Handler() {
-            @Override
-            public void action(Object data) {
-                updateMainScreen(currentYear);
-                switchScreens("datascreen", "mainscreen");
-            }
-        });
-        
-        //user clicks the submit button on the datascreen and no owner is set
-        //for the datascren
-        dataScreen.setNewActivityHandler(new Handler() {
-            @Override
-            public void action(Object data) {
-                CLActivity c = (CLActivity) data;
-                years.addData(c);
-                undo.push(UserAction.addition(c));
-                redo.clear();
-            }
-        });
-        
-        //user clicks the submit button on the datascreen while the owner is set
-        dataScreen.setUpdateActivityHandler(new Handler() {
+        //user is viewing statistics and clicks the button to return to the
+        //mainscreen
+        statisticsScreen.setMainScreenRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                CLActivity[] activities = (CLActivity[]) data;
-                years.get(years.indexOf(currentYear)).removeCLActivity(activities[0]);
-                years.get(years.indexOf(currentYear)).addCLActivity(activities[1]);
-                mainScreen.update();
+                switchScreens("mainscreen");
             }
         });
         
-        //user is viewing details for a CLActivity and clicks the button to
-        //return to the mainscreen
-        detailScreen.setMainScreenRequestHandler(new Handler() {
+        //user is searching and clicks the button to return to the mainscreen
+        searchScreen.setMainScreenRequestHandler(new Handler() {
             @Override
             public void action(Object data) {
-                switchScreens("detailscreen", "mainscreen");
+                switchScreens("mainscreen");
             }
         });
         
-        Handler helpHandler = new Handler() {
+        helpHandler = new Handler() {
 
             @Override
             public void action(Object data) {
                 showHelp = !showHelp;
                 mainScreen.setHelpEnabled(showHelp);
-                dataScreen.setHelpEnabled(showHelp);
-                detailScreen.setHelpEnabled(showHelp);
+                if(dataScreen != null) {
+                    dataScreen.setHelpEnabled(showHelp);
+                }
+                if(detailScreen != null) {
+                    detailScreen.setHelpEnabled(showHelp);
+                }
                 homeScreen.setHelpEnabled(showHelp);
+                statisticsScreen.setHelpEnabled(showHelp);
+                searchScreen.setHelpEnabled(showHelp);
             }
         };
         mainScreen.setToggleHelpEnabledRequestHandler(helpHandler);
-        dataScreen.setToggleHelpEnabledRequestHandler(helpHandler);
-        detailScreen.setToggleHelpEnabledRequestHandler(helpHandler);
         homeScreen.setToggleHelpEnabledRequestHandler(helpHandler);
+        statisticsScreen.setToggleHelpEnabledRequestHandler(helpHandler);
+        searchScreen.setToggleHelpEnabledRequestHandler(helpHandler);
         
-        Handler closeHandler = new Handler() {
+        closeHandler = new Handler() {
 
             @Override
             public void action(Object data) {
@@ -306,21 +362,156 @@ public class Main extends Application {
             
         };
         mainScreen.setCloseButtonClickedHandler(closeHandler);
-        dataScreen.setCloseButtonClickedHandler(closeHandler);
-        detailScreen.setCloseButtonClickedHandler(closeHandler);
         homeScreen.setCloseButtonClickedHandler(closeHandler);
+        statisticsScreen.setCloseButtonClickedHandler(closeHandler);
+        searchScreen.setCloseButtonClickedHandler(closeHandler);
         //</editor-fold>
         
-        root.getChildren().addAll(homeScreen, mainScreen, dataScreen, detailScreen);
-        root.setTranslateX(0);
-        root.setTranslateY(-height-2);
+        root.getChildren().addAll(homeScreen, mainScreen, statisticsScreen, searchScreen);
+        Point2D home = screenPosition("homescreen");
+        root.setTranslateX(-home.getX());
+        root.setTranslateY(-home.getY());
 //        root.setScaleX(1/3);
 
         Scene scene = new Scene(root, (Double) settings.get("stageWidth"), 
                 (Double) settings.get("stageHeight"));
         scene.setFill(new Color(0,0,0,0));
         primaryStage.setScene(scene);
+        t = timed("handlers and scene", t);
         primaryStage.show();
+        timed("show", t);
+        if(TIMING) {
+            final long shown = System.nanoTime();
+            //the first pulse lays out and renders the scene; the second comes
+            //once that frame is done
+            new AnimationTimer() {
+                private int pulses = 0;
+
+                @Override
+                public void handle(long now) {
+                    if(++pulses == 2) {
+                        timed("first frame", shown);
+                        stop();
+                    }
+                }
+            }.start();
+        }
+
+        //build the remaining screens once the window is up, one at a time, so
+        //that they are ready by the time the user asks for them
+        PauseTransition warmUp = new PauseTransition(Duration.seconds(1));
+        warmUp.setOnFinished(new EventHandler<ActionEvent>() {
+            @Override
+            public void handle(ActionEvent e) {
+                getDetailScreen();
+                Platform.runLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        getDataScreen();
+                    }
+                });
+            }
+        });
+        warmUp.play();
+    }
+
+    /*
+     * Returns the dataScreen, creating it if it has not been needed yet.  Its
+     * HTMLEditor is slow to create, so this is left until after startup.
+     */
+    private DataScreen getDataScreen() {
+        if(dataScreen == null) {
+            long t = System.nanoTime();
+            dataScreen = new DataScreen(stage, settings, tracker.getYears().getYearsList());
+            place(dataScreen, "datascreen");
+
+            //user is on dataScreen, clicks button to return to mainScreen
+            dataScreen.setMainScreenRequestHandler(new Handler() {
+                @Override
+                public void action(Object data) {
+                    updateMainScreen(currentYear);
+                    switchScreens("mainscreen");
+                }
+            });
+
+            //user clicks the submit button on the datascreen and no owner is set
+            //for the datascren
+            dataScreen.setNewActivityHandler(new Handler() {
+                @Override
+                public void action(Object data) {
+                    CLActivity c = (CLActivity) data;
+                    UserAction action = tracker.add(c);
+                    mainScreen.activityAdded(c);
+                    record(action);
+                }
+            });
+
+            //user clicks the submit button on the datascreen while the owner is set
+            dataScreen.setUpdateActivityHandler(new Handler() {
+                @Override
+                public void action(Object data) {
+                    CLActivity[] activities = (CLActivity[]) data;
+                    UserAction action = tracker.replace(activities[0], activities[1]);
+                    if(action == null) {
+                        //the activity is no longer in the tracker
+                        return;
+                    }
+                    mainScreen.activityReplaced(activities[0], activities[1]);
+                    record(action);
+                    //further edits apply to the activity as it now is
+                    dataScreen.setOwner(activities[1]);
+                }
+            });
+
+            dataScreen.setToggleHelpEnabledRequestHandler(helpHandler);
+            dataScreen.setCloseButtonClickedHandler(closeHandler);
+            dataScreen.setHelpEnabled(showHelp);
+            root.getChildren().add(dataScreen);
+            timed("dataScreen", t);
+        }
+        return dataScreen;
+    }
+
+    /*
+     * Returns the detailScreen, creating it if it has not been needed yet.
+     * Its WebView starts WebKit, so this is left until after startup.
+     */
+    private DetailScreen getDetailScreen() {
+        if(detailScreen == null) {
+            long t = System.nanoTime();
+            detailScreen = new DetailScreen(stage, settings);
+            place(detailScreen, "detailscreen");
+
+            //user is viewing details for a CLActivity and clicks the button to
+            //return to the mainscreen
+            detailScreen.setMainScreenRequestHandler(new Handler() {
+                @Override
+                public void action(Object data) {
+                    switchScreens("mainscreen");
+                }
+            });
+
+            detailScreen.setToggleHelpEnabledRequestHandler(helpHandler);
+            detailScreen.setCloseButtonClickedHandler(closeHandler);
+            detailScreen.setHelpEnabled(showHelp);
+            root.getChildren().add(detailScreen);
+            timed("detailScreen", t);
+        }
+        return detailScreen;
+    }
+
+    /*
+     * Logs how long a phase of startup took, if timing is enabled, and
+     * returns the time at which it finished (the start of the next phase)
+     */
+    private static long timed(String phase, long start) {
+        long now = System.nanoTime();
+        if(TIMING && start != 0) {
+            Logger.getLogger(Main.class.getName()).log(Level.INFO, String.format(
+                    "startup: %-24s %8.1f ms  (%.1f ms since launch)", phase,
+                    (now - start) / 1e6, (launched == 0) ? 0 : (now - launched) / 1e6));
+        }
+        return now;
     }
     
     /*
@@ -331,63 +522,53 @@ public class Main extends Application {
      * call this method to find the Year object for the requested year
      */
     private void updateMainScreen(int newYear) {
-        if(years.indexOf(newYear) != -1) {
-            mainScreen.update(years.get(years.indexOf(newYear)));
-        } else {
-            mainScreen.update(new Year(newYear));
-        }
+        Year y = tracker.getYears().get(newYear);
+        mainScreen.update((y != null) ? y : new Year(newYear));
     }
     
     /*
-     * removes the current screen from the Scene, adds the requested screen, and
-     * updates the window graphics
+     * slides the requested screen into the window.  The screens are laid out
+     * in a grid in the root group, and the window shows whichever part of the
+     * root group is translated into it.
+     */
+    private void switchScreens(String to) {
+        Point2D p = screenPosition(to);
+        TranslateTransition trans = new TranslateTransition(Duration.seconds(0.5), root);
+        trans.setToX(-p.getX());
+        trans.setToY(-p.getY());
+        trans.play();
+    }
+
+    /*
+     * the position of each screen in the root group:
+     *   searchScreen   dataScreen   statisticsScreen
+     *   homeScreen     mainScreen   detailScreen
      */
-    private void switchScreens(String from, String to) {
+    private Point2D screenPosition(String screen) {
         double width = (Double) settings.get("stageWidth");
         double height = (Double) settings.get("stageHeight");
-        Path path = new Path();
-        MoveTo startPt = new MoveTo();
-        LineTo endPt = new LineTo();
-        switch(from) {
-            case "mainscreen": 
-                startPt.setX(0.5*width);
-                startPt.setY(-1);
-                break;
-            case "datascreen": 
-                startPt.setX(0.5*width);
-                startPt.setY(height+1);
-                break;
-            case "detailscreen":
-                startPt.setX(-0.5*width);
-                startPt.setY(-1);
-                break;
-            case "homescreen": 
-                startPt.setX(1.5*width);
-                startPt.setY(-1);
-                break;
-        }
-        switch(to) {
-            case "mainscreen": 
-                endPt.setX(0.5*width);
-                endPt.setY(-1);
-                break;
-            case "datascreen": 
-                endPt.setX(0.5*width);
-                endPt.setY(height+1);
-                break;
+        switch(screen) {
+            case "searchscreen":
+                return new Point2D(0, 0);
+            case "datascreen":
+                return new Point2D(width, 0);
+            case "statisticsscreen":
+                return new Point2D(2*width, 0);
+            case "homescreen":
+                return new Point2D(0, height+2);
+            case "mainscreen":
+                return new Point2D(width, height+2);
             case "detailscreen":
-                endPt.setX(-0.5*width);
-                endPt.setY(-1);
-                break;
-            case "homescreen": 
-                endPt.setX(1.5*width);
-                endPt.setY(-1);
-                break;
+                return new Point2D(2*width, height+2);
+            default:
+                throw new IllegalArgumentException("Unknown screen: "+screen);
         }
-        path.getElements().add(startPt);
-        path.getElements().add(endPt);
-        PathTransition trans = new PathTransition(Duration.seconds(0.5),path,root);
-        trans.play();
+    }
+
+    private void place(Node screen, String name) {
+        Point2D p = screenPosition(name);
+        screen.setLayoutX(p.getX());
+        screen.setLayoutY(p.getY());
     }
     
     /* 
@@ -407,18 +588,28 @@ public class Main extends Application {
         settings.put("datascreenBGStroke", Color.DARKORANGE);
         settings.put("detailscreenBGPaint", new Color(0,0,0,0.9));
         settings.put("detailscreenBGStroke", Color.DARKORANGE);
+        settings.put("statisticsscreenBGPaint", new Color(0,0,0,0.9));
+        settings.put("statisticsscreenBGStroke", Color.DARKORANGE);
+        settings.put("searchscreenBGPaint", new Color(0,0,0,0.9));
+        settings.put("searchscreenBGStroke", Color.DARKORANGE);
         settings.put("mainscreenWindowButtonFGPaint", new Color(1,.5,0,1));
         settings.put("homescreenWindowButtonFGPaint", new Color(1,.5,0,1));
         settings.put("datascreenWindowButtonFGPaint", new Color(1,.5,0,1));
         settings.put("detailscreenWindowButtonFGPaint", Color.DARKORANGE);
+        settings.put("statisticsscreenWindowButtonFGPaint", new Color(1,.5,0,1));
+        settings.put("searchscreenWindowButtonFGPaint", new Color(1,.5,0,1));
         settings.put("mainscreenWindowButtonBGPaint", Color.TRANSPARENT);
         settings.put("homescreenWindowButtonBGPaint", Color.TRANSPARENT);
         settings.put("datascreenWindowButtonBGPaint", Color.TRANSPARENT);
         settings.put("detailscreenWindowButtonBGPaint", Color.TRANSPARENT);
+        settings.put("statisticsscreenWindowButtonBGPaint", Color.TRANSPARENT);
+        settings.put("searchscreenWindowButtonBGPaint", Color.TRANSPARENT);
         settings.put("homescreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1));
         settings.put("mainscreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1));
         settings.put("datascreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1));
         settings.put("detailscreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1)); 
+        settings.put("statisticsscreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1));
+        settings.put("searchscreenHelpButtonEnabledBGPaint", new Color(.3,.3,.3,1));
         settings.put("mainscreenLabelPaint", Color.WHITE);
         settings.put("mainscreenLabelFont", new Font("Arial", 30));
         settings.put("tableDataTextPaint", Color.BLACK);
@@ -434,6 +625,23 @@ public class Main extends Application {
         settings.put("detailscreenButtonFGPaint", Color.WHITE);
         settings.put("detailscreenButtonBGPaint", new Color(.4,.4,.4,1));
         settings.put("detailscreenButtonOutlinePaint", Color.WHITE);
+        settings.put("statisticsscreenButtonFGPaint", Color.WHITE);
+        settings.put("statisticsscreenButtonBGPaint", new Color(.4,.4,.4,1));
+        settings.put("statisticsscreenButtonOutlinePaint", Color.WHITE);
+        settings.put("statisticsscreenLabelPaint", Color.WHITE);
+        settings.put("statisticsscreenLabelFont", new Font("Arial", 30));
+        settings.put("statisticsscreenHeadingFont", new Font("Comic Sans MS", 16));
+        settings.put("statisticsscreenTextPaint", Color.LIGHTGRAY);
+        settings.put("statisticsscreenTextFont", new Font("Arial", 12));
+        settings.put("statisticsscreenBarPaint", new Color(1, 0.5, 0, 1));
+        settings.put("searchscreenButtonFGPaint", Color.WHITE);
+        settings.put("searchscreenButtonBGPaint", new Color(.4,.4,.4,1));
+        settings.put("searchscreenButtonOutlinePaint", Color.WHITE);
+        settings.put("searchscreenLabelPaint", Color.WHITE);
+        settings.put("searchscreenLabelFont", new Font("Arial", 30));
+        settings.put("searchscreenTextPaint", Color.LIGHTGRAY);
+        settings.put("searchscreenTextFont", new Font("Arial", 12));
+        settings.put("searchscreenHighlightPaint", new Color(1, 0.5, 0, 0.4));
         settings.put("tableRow1BGPaint", new Color(1, 0.5, 0, 1));
         settings.put("tableRow2BGPaint", new Color(1, .639, .288, 1));
         settings.put("tableHeaderBGPaint", Color.TRANSPARENT);
@@ -447,128 +655,145 @@ public class Main extends Application {
     
     /*
      * Opens a new file and initializes the mainScreen to show the newly opened
-     * data.  If there are problems with the file's contents, the ParseException
-     * thrown by loadFromFile is allowed to pass
+     * data.  The file is loaded in the background while the homeScreen shows
+     * the progress; the mainScreen is only shown once loading completes.  If
+     * the file does not exist a ParseException is thrown immediately; any
+     * other problem with the file is reported on the homeScreen.
      */
     private void openExistingFile(String fileName) throws ParseException {
-        file = new File(fileName);
-        if(!file.exists())
+        final File f = new File(fileName);
+        if(!f.exists())
             throw new ParseException("File does not exist!",0);
-        loadFromFile(file);
-        now();
-        if(years.indexOf(currentYear) >= 0) {
-            mainScreen.update(years.get(years.indexOf(currentYear)));
-        } else {
-            mainScreen.update(new Year(currentYear));
+        if(loading != null) {
+            loading.cancel();
         }
-        switchScreens("homescreen", "mainscreen");
+        final Task<Tracker> task = new Task<Tracker>() {
+            @Override
+            protected Tracker call() throws Exception {
+                updateMessage("Opening "+f.getName()+"...");
+                return Tracker.open(f, new ProgressHandler() {
+                    @Override
+                    public void progress(long done, long total) {
+                        updateProgress(done, total);
+                    }
+                });
+            }
+        };
+        task.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent t) {
+                loading = null;
+                tracker = task.getValue();
+                homeScreen.hideProgress();
+                now();
+                updateMainScreen(currentYear);
+                switchScreens("mainscreen");
+            }
+        });
+        task.setOnFailed(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent t) {
+                loading = null;
+                Throwable ex = task.getException();
+                if(!(ex instanceof ParseException)) {
+                    Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
+                }
+                homeScreen.hideProgress();
+                homeScreen.fileError(ex.getMessage());
+            }
+        });
+        task.setOnCancelled(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent t) {
+                loading = null;
+                homeScreen.hideProgress();
+            }
+        });
+        loading = task;
+        homeScreen.showProgress(task);
+        fileIO.execute(task);
     }
 
     /*
-     * Writes the data to the given file
+     * Writes the data to the given file.  A snapshot of the data is written in
+     * the background, so the user can keep working; changes made meanwhile
+     * are journaled once the save has finished.
      */
-    private void writeToFile (File f) {
-        try(java.io.PrintWriter p = new java.io.PrintWriter(f)) {
-            for(Year y : years) {
-                for(String d: y.getAllDescs()) {
-                    for(CLActivity j : y.getCLActivities(d)) {
-                        String line = "~Activity~\n";
-                        line += "desc="+d+"\n";
-                        line += "date="+format.format(j.getDate().getTime())+"\n";
-                        line += "year="+j.getStartYr()+"\n";
-                        Contact contact = j.getContact();
-                        line += "contactname="+contact.getName()+"\n";
-                        line += "contactemail="+contact.getEmail()+"\n";
-                        line += "contactphone="+contact.getPhone()+"\n";
-                        line += "hours="+j.getHours()+"\n";
-                        line += "~~Details~~\n";
-                        line += j.getDetails()+"\n~~/Details~~\n~/Activity~";
-                        p.println(line);
-                        p.println();
+    private void writeToFile (final File f) {
+        final Tracker saving = tracker;
+        final YearList snapshot = saving.beginSave(f);
+        final Task<Void> task = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                updateMessage("Saving "+f.getName()+"...");
+                Tracker.save(snapshot, f, new ProgressHandler() {
+                    @Override
+                    public void progress(long done, long total) {
+                        updateProgress(done, total);
                     }
-                }
+                });
+                return null;
             }
-        } catch(IOException ex) {
-            
-        }
+        };
+        task.setOnSucceeded(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent t) {
+                saving.saved();
+            }
+        });
+        task.setOnFailed(new EventHandler<WorkerStateEvent>() {
+            @Override
+            public void handle(WorkerStateEvent t) {
+                saving.saveFailed();
+                Logger.getLogger(Main.class.getName()).log(Level.SEVERE,
+                        "Could not save "+f, task.getException());
+                mainScreen.saveError(task.getException().getMessage());
+            }
+        });
+        mainScreen.showSaveProgress(task);
+        fileIO.execute(task);
     }
     
     /*
-     * Parses the given file.  Is fairly robust--usually can tell you where it
-     * encountered an error, if it does. This is stored in the ParseException
-     * that is thrown.
+     * Called after every change to the data.  Once the data is associated
+     * with a file, every change is appended to that file's journal, which
+     * costs the same however large the file is; the journal is folded back
+     * into the file once it grows too large.  Until the data has a file the
+     * changes are only flagged as unsaved.  Journal writes share the file
+     * thread with saves, so they always land after any save in progress.  If
+     * a change cannot be journaled, it is flagged as unsaved and the user is
+     * told, so that it is saved in full instead.
      */
-    private void loadFromFile(File file) throws ParseException {
-        int lineNum = 0;
-        try {
-            java.io.BufferedReader b = new java.io.BufferedReader(new java.io.FileReader(file));
-            String s = b.readLine();
-            CLActivity a = null;
-            boolean parsingAct = false, parsingDetails = false;
-            int complete = 0;
-            Contact contact = null;
-            String details = null;
-            while(s != null) {
-                lineNum ++;
-                if(s.equals("~Activity~") && a == null) {
-                    parsingAct = true;
-                    a = new CLActivity();
-                    contact = new Contact();
-                    details = "";
-                } else if(s.startsWith("desc=") && a != null) {
-                    a.setDesc(s.substring(s.indexOf('=')+1));
-                    complete += 1;
-                } else if(s.startsWith("date=") && a != null) {
-                    String date = s.substring(s.indexOf('=')+1);
-                    GregorianCalendar g = new GregorianCalendar();
-                    g.setTime(format.parse(date));
-                    a.setDate(g);
-                    complete += 1<<1;
-                } else if(s.startsWith("contactname=") && a != null) {
-                    contact.setName(s.substring(s.indexOf('=')+1));
-                    complete += 1<<2;
-                } else if(s.startsWith("contactemail=") && a != null) {
-                    contact.setEmail(s.substring(s.indexOf('=')+1));
-                    complete += 1<<3;
-                } else if(s.startsWith("contactphone=") && a != null) {
-                    contact.setPhone(s.substring(s.indexOf('=')+1));
-                    complete += 1<<4;
-                } else if(s.startsWith("hours=") && a != null) {
-                    a.setHours(Double.parseDouble(s.substring(s.indexOf('=')+1)));
-                    complete += 1<<5;
-                } else if(s.startsWith("year=") && a != null) {
-                    a.setStartYr(Integer.parseInt(s.substring(s.indexOf('=')+1)));
-                    complete += 1<<6;
-                } else if(s.equals("~~Details~~") && a != null) {
-                    parsingDetails = true;
-                } else if(parsingDetails && a != null) {
-                    if(!s.equals("~~/Details~~")) {
-                        details += s + "\n";
-                    } else {
-                        parsingDetails = false;
-                        a.setDetails(details);
-                        complete += 1<<7;
-                    }
-                } else if((a != null) && s.equals("~/Activity~")) {
-                    if(complete == (1<<8) - 1) {
-                        a.setContact(contact);
-                        years.addData(a);
-                        complete = 0;
-                        a = null;
-                        contact = null;
-                    } else {
-                        throw new ParseException("Incomplete CL activity at line "+lineNum,0);
-                    }
-                } else if(s.equals("")){
-                    
-                } else {
-                    throw new ParseException("Invalid syntax at line "+lineNum, 0);
+    private void record(final UserAction action) {
+        final CLJournal j = tracker.getJournal();
+        if(j == null) {
+            return;
+        }
+        final Tracker changed = tracker;
+        final File f = tracker.getFile();
+        fileIO.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    j.append(action);
+                } catch (final IOException ex) {
+                    Logger.getLogger(Main.class.getName()).log(Level.SEVERE,
+                            "Could not save "+f, ex);
+                    Platform.runLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            changed.unsaved();
+                            mainScreen.saveError(ex.getMessage());
+                        }
+                    });
                 }
-                s = b.readLine();
             }
-        } catch (IOException ex) {
-            Logger.getLogger(Main.class.getName()).log(Level.SEVERE, null, ex);
-        } 
+        });
+        //the journal stays large until a save has replaced it, so another is
+        //only started once any earlier one has finished
+        if(j.needsCompaction() && !tracker.isSaving()) {
+            writeToFile(f);
+        }
     }
     
 }
@@ -0,0 +1,460 @@
+package honorscltracker.cli;
+
+import honorscltracker.core.Tracker;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import honorscltracker.core.io.CLFiles;
+import honorscltracker.core.io.CLWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command-line tool for processing many students' .cl files at once, without
+ * the GUI.  Every file is read exactly as the GUI opens it (including any
+ * changes in its journal), so a file that this tool reports as valid will
+ * open in the GUI, and vice versa.  Files are processed on every core, and
+ * only as many files as there are threads are held in memory at once, so a
+ * batch of any size runs in bounded memory.  The input files and their
+ * journals are only read, never modified; even a stale journal, which the GUI
+ * would delete, is left in place.
+ *
+ * Usage:
+ * <pre>
+ * java -cp HonorsCLTracker.jar honorscltracker.cli.BatchProcessor [options] files-or-directories...
+ *   -merge FILE     write the activities of every valid file to one .cl file
+ *   -students FILE  write each student's hours per academic year as CSV
+ *   -years FILE     write the total hours of each academic year as CSV
+ *   -threads N      process N files at once (default: one per core)
+ * </pre>
+ * Directories are searched for .cl and .clb files.  A CSV file of
+ * <code>-</code> is written to standard output.  Each student is named after
+ * their file.  Invalid files are reported on standard error and left out of
+ * the merge and the reports; the exit status is 0 if every file was valid, 1
+ * if any was not, and 2 if the command line was wrong or the run was aborted
+ * (for example by running out of memory).
+ *
+ * The merged file receives the activities of one file at a time, in the order
+ * in which the files were given (directories being searched in sorted order),
+ * so the same input always gives the same merge.
+ * @author Connor Pierce
+ */
+public class BatchProcessor {
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    private final List<File> files = new ArrayList<>();
+    private File merge, students, years;
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The totals of one file, or the reason it could not be read.
+     */
+    private static class Result {
+        final File file;
+        final int index; //position of the file in the input
+        //academic year -> {activities, hours}
+        final TreeMap<Integer, double[]> years = new TreeMap<>();
+        String error;
+
+        Result(File file, int index) {
+            this.file = file;
+            this.index = index;
+        }
+
+        String getStudent() {
+            String name = file.getName();
+            int dot = name.lastIndexOf('.');
+            return (dot > 0) ? name.substring(0, dot) : name;
+        }
+    }
+
+    public static void main(String[] args) {
+        BatchProcessor p = new BatchProcessor();
+        try {
+            p.parseArguments(args);
+        } catch(IllegalArgumentException | IOException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Usage: BatchProcessor [-merge FILE] [-students FILE] [-years FILE]"
+                    + " [-threads N] files-or-directories...");
+            System.exit(2);
+        }
+        try {
+            System.exit(p.run() ? 0 : 1);
+        } catch(IOException | InterruptedException ex) {
+            System.err.println(ex.getMessage());
+            System.exit(2);
+        } catch(Error ex) {
+            //not a problem with any one file, so no file is blamed for it
+            System.err.println("Aborted: "+ex);
+            System.exit(2);
+        }
+    }
+
+    /*
+     * Reads the options, and collects the files to process in a stable order
+     */
+    private void parseArguments(String[] args) throws IOException {
+        for(int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if(arg.startsWith("-") && arg.length() > 1) {
+                if(i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for "+arg);
+                }
+                String value = args[++i];
+                switch(arg) {
+                    case "-merge":
+                        merge = new File(value);
+                        break;
+                    case "-students":
+                        students = new File(value);
+                        break;
+                    case "-years":
+                        years = new File(value);
+                        break;
+                    case "-threads":
+                        try {
+                            threads = Integer.parseInt(value);
+                        } catch(NumberFormatException ex) {
+                            threads = 0;
+                        }
+                        if(threads < 1) {
+                            throw new IllegalArgumentException("Invalid thread count: "+value);
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: "+arg);
+                }
+            } else {
+                addFiles(new File(arg));
+            }
+        }
+        if(merge != null) {
+            //a previous merge into the same directory is not an input
+            for(int i = files.size() - 1; i >= 0; i--) {
+                if(files.get(i).getAbsoluteFile().equals(merge.getAbsoluteFile())) {
+                    files.remove(i);
+                }
+            }
+        }
+        if(files.isEmpty()) {
+            throw new IllegalArgumentException("No .cl files given");
+        }
+    }
+
+    private void addFiles(File f) throws IOException {
+        if(!f.isDirectory()) {
+            files.add(f);
+            return;
+        }
+        final List<File> found = new ArrayList<>();
+        Files.walkFileTree(f.toPath(), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path p, BasicFileAttributes attrs) {
+                String name = p.getFileName().toString();
+                if(attrs.isRegularFile() && (name.endsWith(".cl")
+                        || name.endsWith(CLFiles.SNAPSHOT_EXTENSION))) {
+                    found.add(p.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        Collections.sort(found);
+        files.addAll(found);
+    }
+
+    /*
+     * Processes every file, then writes the reports.  Returns whether every
+     * file was valid.
+     */
+    private boolean run() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        final Result[] results = new Result[files.size()];
+        final Error[] fatal = new Error[1];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        //no more files are queued than can be processed at once, so at most
+        //one file per thread is in memory
+        final Semaphore slots = new Semaphore(threads);
+        final MergeWriter merged = (merge == null) ? null : new MergeWriter(
+                new OutputStreamWriter(new FileOutputStream(merge), CHARSET), slots);
+        try {
+            for(int i = 0; i < results.length; i++) {
+                final Result r = new Result(files.get(i), i);
+                results[i] = r;
+                slots.acquire();
+                synchronized(fatal) {
+                    if(fatal[0] != null) {
+                        break;
+                    }
+                }
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        String text = null;
+                        try {
+                            text = process(r, merged != null);
+                        } catch(IOException | RuntimeException ex) {
+                            //a file that crashes the loader is as invalid as
+                            //one it rejects
+                            r.error = "Could not be processed: "+ex;
+                        } catch(Error ex) {
+                            //the run is aborted once the files being
+                            //processed have finished
+                            synchronized(fatal) {
+                                if(fatal[0] == null) {
+                                    fatal[0] = ex;
+                                }
+                            }
+                        } finally {
+                            if(merged == null) {
+                                slots.release();
+                            } else {
+                                //the slot is released once the text is written
+                                merged.put(r.index, (r.error == null) ? text : null);
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            if(merged != null) {
+                merged.close();
+            }
+        }
+        if(fatal[0] != null) {
+            throw fatal[0];
+        }
+        IOException mergeError = (merged == null) ? null : merged.getError();
+        if(mergeError != null) {
+            throw new IOException("Could not write "+merge+": "+mergeError.getMessage(),
+                    mergeError);
+        }
+
+        int invalid = 0;
+        long activities = 0;
+        for(Result r : results) {
+            if(r.error != null) {
+                invalid++;
+                System.err.println(r.file+": "+r.error);
+            } else {
+                for(double[] totals : r.years.values()) {
+                    activities += (long) totals[0];
+                }
+            }
+        }
+        if(students != null) {
+            writeStudents(results);
+        }
+        if(years != null) {
+            writeYears(results);
+        }
+        System.err.printf("%d files (%d invalid), %d activities in %.1f s%n", results.length,
+                invalid, activities, (System.nanoTime() - start) / 1e9);
+        return invalid == 0;
+    }
+
+    /*
+     * Writes the activities of each file to the merged file in the order of
+     * the input, whatever order the files finish in.  A file's slot is only
+     * released once its activities have been written, so a file that is slow
+     * to load holds back the files after it rather than letting their
+     * activities pile up in memory.
+     */
+    private static class MergeWriter {
+        private final Writer out;
+        private final Semaphore slots;
+        //finished files waiting for an earlier one, by index
+        private final TreeMap<Integer, String> waiting = new TreeMap<>();
+        private int next; //index of the next file to write
+        private IOException error;
+
+        MergeWriter(Writer out, Semaphore slots) {
+            this.out = out;
+            this.slots = slots;
+        }
+
+        /*
+         * Accepts the activities of the index-th file, or null if it has
+         * none to merge, and writes every file that is now next in order
+         */
+        synchronized void put(int index, String text) {
+            waiting.put(index, text);
+            while(!waiting.isEmpty() && waiting.firstKey() == next) {
+                String t = waiting.remove(next);
+                next++;
+                if(t != null && error == null) {
+                    try {
+                        out.write(t);
+                    } catch(IOException ex) {
+                        error = ex;
+                    }
+                }
+                slots.release();
+            }
+        }
+
+        synchronized IOException getError() {
+            return error;
+        }
+
+        void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /*
+     * Opens and totals one file.  If the file is to be merged, returns its
+     * activities in .cl form.  Errors in the file itself are recorded in the
+     * result rather than thrown; any other exception leaves the result
+     * incomplete, and must be recorded by the caller.
+     */
+    private static String process(Result r, boolean merge) throws IOException {
+        YearList list;
+        try {
+            list = Tracker.read(r.file, null);
+        } catch(ParseException | IOException ex) {
+            r.error = ex.getMessage();
+            return null;
+        }
+        for(Year y : list) {
+            r.years.put(y.getStartYear(), new double[]{y.getSize(),
+                    y.getSummary().getTotalHours()});
+        }
+        if(!merge) {
+            return null;
+        }
+        StringWriter text = new StringWriter();
+        CLWriter w = new CLWriter(text);
+        w.write(list);
+        w.flush();
+        return text.toString();
+    }
+
+    /*
+     * One row per valid file, with a column of hours for each academic year
+     * that appears in any file
+     */
+    private void writeStudents(Result[] results) throws IOException {
+        TreeMap<Integer, String> columns = new TreeMap<>();
+        for(Result r : results) {
+            if(r.error == null) {
+                for(int y : r.years.keySet()) {
+                    columns.put(y, yearString(y));
+                }
+            }
+        }
+        try(PrintWriter out = open(students)) {
+            out.print("student,file");
+            for(String year : columns.values()) {
+                out.print(","+year);
+            }
+            out.println(",activities,hours");
+            for(Result r : results) {
+                if(r.error != null) {
+                    continue;
+                }
+                out.print(csv(r.getStudent())+","+csv(r.file.getPath()));
+                double activities = 0, hours = 0;
+                for(int y : columns.keySet()) {
+                    double[] totals = r.years.get(y);
+                    out.print(","+hours((totals == null) ? 0 : totals[1]));
+                    if(totals != null) {
+                        activities += totals[0];
+                        hours += totals[1];
+                    }
+                }
+                out.println(","+(long) activities+","+hours(hours));
+            }
+        }
+    }
+
+    /*
+     * One row per academic year, totalled over every valid file
+     */
+    private void writeYears(Result[] results) throws IOException {
+        //academic year -> {students, activities, hours}
+        TreeMap<Integer, double[]> totals = new TreeMap<>();
+        for(Result r : results) {
+            if(r.error != null) {
+                continue;
+            }
+            for(Map.Entry<Integer, double[]> e : r.years.entrySet()) {
+                double[] t = totals.get(e.getKey());
+                if(t == null) {
+                    t = new double[3];
+                    totals.put(e.getKey(), t);
+                }
+                t[0]++;
+                t[1] += e.getValue()[0];
+                t[2] += e.getValue()[1];
+            }
+        }
+        try(PrintWriter out = open(years)) {
+            out.println("year,students,activities,hours");
+            for(Map.Entry<Integer, double[]> e : totals.entrySet()) {
+                double[] t = e.getValue();
+                out.println(yearString(e.getKey())+","+(long) t[0]+","+(long) t[1]+","+hours(t[2]));
+            }
+        }
+    }
+
+    private static PrintWriter open(File f) throws IOException {
+        OutputStream out;
+        if(f.getPath().equals("-")) {
+            //standard output must stay open after the report is written
+            out = new PrintStream(System.out) {
+                @Override
+                public void close() {
+                    flush();
+                }
+            };
+        } else {
+            out = new FileOutputStream(f);
+        }
+        return new PrintWriter(new OutputStreamWriter(out, CHARSET));
+    }
+
+    private static String yearString(int startYr) {
+        return startYr+"-"+String.format("%02d", (startYr + 1) % 100);
+    }
+
+    private static String hours(double h) {
+        return String.format(Locale.ROOT, "%.2f", h);
+    }
+
+    /*
+     * Quotes a CSV field if it contains a delimiter, quote or line break
+     */
+    private static String csv(String s) {
+        if(s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0
+                && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,247 @@
+package honorscltracker.core;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * A read-only, column-oriented copy of every comp learning activity in a
+ * <code>YearList</code>, for statistics over the whole history.  Each
+ * activity is a position in a set of parallel primitive arrays (hours, date
+ * as days since 1/1/1970, starting year, and description), with descriptions
+ * replaced by small integer IDs.  Queries scan the arrays they need without
+ * touching any <code>CLActivity</code> objects, so grouping or ranking a
+ * million activities takes a few milliseconds.
+ *
+ * The index is a snapshot: it does not change when the <code>YearList</code>
+ * does, and should be built again with {@link #build(YearList)} when fresh
+ * figures are needed.
+ * @author Connor Pierce
+ */
+public final class ActivityIndex {
+    private final int size;
+    private final double[] hours;
+    private final int[] epochDay;
+    private final int[] startYear;
+    private final int[] desc;
+    private final String[] descNames;
+    private final int firstYear, lastYear;
+
+    private ActivityIndex(int size, double[] hours, int[] epochDay,
+            int[] startYear, int[] desc, String[] descNames) {
+        this.size = size;
+        this.hours = hours;
+        this.epochDay = epochDay;
+        this.startYear = startYear;
+        this.desc = desc;
+        this.descNames = descNames;
+        int first = Integer.MAX_VALUE, last = Integer.MIN_VALUE;
+        for(int i = 0; i < size; i++) {
+            first = Math.min(first, startYear[i]);
+            last = Math.max(last, startYear[i]);
+        }
+        firstYear = first;
+        lastYear = last;
+    }
+
+    /**
+     * Builds an index of every comp learning activity in the given list.
+     * @param years the activities to index
+     * @return an index of the activities in <code>years</code>
+     */
+    public static ActivityIndex build(YearList years) {
+        int n = 0;
+        for(Year y : years) {
+            n += y.getSize();
+        }
+        double[] hours = new double[n];
+        int[] epochDay = new int[n];
+        int[] startYear = new int[n];
+        int[] desc = new int[n];
+        HashMap<String, Integer> ids = new HashMap<>();
+        String[] names = new String[16];
+        int i = 0;
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                Integer id = ids.get(d);
+                if(id == null) {
+                    id = ids.size();
+                    ids.put(d, id);
+                    if(id == names.length) {
+                        names = Arrays.copyOf(names, names.length * 2);
+                    }
+                    names[id] = d;
+                }
+                for(CLActivity c : y.getCLActivities(d)) {
+                    hours[i] = c.getHours();
+                    epochDay[i] = c.getEpochDay();
+                    startYear[i] = c.getStartYr();
+                    desc[i] = id;
+                    i++;
+                }
+            }
+        }
+        return new ActivityIndex(n, hours, epochDay, startYear, desc,
+                Arrays.copyOf(names, ids.size()));
+    }
+
+    /**
+     * Returns the number of activities in the index.
+     * @return the number of activities in the index
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the earliest academic year containing an activity.
+     * @return the starting year of the earliest academic year, or
+     * <code>Integer.MAX_VALUE</code> if the index is empty
+     */
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * Returns the latest academic year containing an activity.
+     * @return the starting year of the latest academic year, or
+     * <code>Integer.MIN_VALUE</code> if the index is empty
+     */
+    public int getLastYear() {
+        return lastYear;
+    }
+
+    /**
+     * Returns the number of distinct descriptions in the index.  Description
+     * IDs run from 0 to one less than this number.
+     * @return the number of distinct descriptions
+     */
+    public int getDescCount() {
+        return descNames.length;
+    }
+
+    /**
+     * Returns the description with the given ID.
+     * @param id a description ID, as returned by {@link #topDescs(int)}
+     * @return the description with that ID
+     */
+    public String getDescName(int id) {
+        return descNames[id];
+    }
+
+    /**
+     * Groups the activities by academic year, and totals the hours of each
+     * group.
+     * @param from the starting year of the first academic year to include
+     * @param to the starting year of the last academic year to include
+     * @return the total hours of each academic year, with the hours for year
+     * <code>from + i</code> at index <code>i</code>
+     */
+    public double[] hoursByYear(int from, int to) {
+        double[] result = new double[Math.max(0, to - from + 1)];
+        for(int i = 0; i < size; i++) {
+            int y = startYear[i] - from;
+            if(y >= 0 && y < result.length) {
+                result[y] += hours[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Groups the activities by description, and totals the hours of each
+     * group.
+     * @return the total hours under each description, indexed by description
+     * ID
+     */
+    public double[] hoursByDesc() {
+        double[] result = new double[descNames.length];
+        for(int i = 0; i < size; i++) {
+            result[desc[i]] += hours[i];
+        }
+        return result;
+    }
+
+    /**
+     * Totals the hours of the activities dated within the given range.
+     * @param fromDay the first day to include, in days since 1/1/1970
+     * @param toDay the last day to include, in days since 1/1/1970
+     * @return the total hours of the activities dated from
+     * <code>fromDay</code> to <code>toDay</code> inclusive
+     */
+    public double hoursBetween(int fromDay, int toDay) {
+        double result = 0;
+        for(int i = 0; i < size; i++) {
+            if(epochDay[i] >= fromDay && epochDay[i] <= toDay) {
+                result += hours[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the descriptions with the most hours.
+     * @param k the maximum number of descriptions to return
+     * @return the IDs of the (at most) <code>k</code> descriptions with the
+     * most hours, most hours first
+     */
+    public int[] topDescs(int k) {
+        final double[] totals = hoursByDesc();
+        k = Math.min(k, totals.length);
+        if(k <= 0) {
+            return new int[0];
+        }
+        //min-heap of the best k so far, least hours at the root
+        int[] heap = new int[k];
+        int n = 0;
+        for(int id = 0; id < totals.length; id++) {
+            if(n < k) {
+                heap[n] = id;
+                siftUp(heap, n++, totals);
+            } else if(totals[id] > totals[heap[0]]) {
+                heap[0] = id;
+                siftDown(heap, n, totals);
+            }
+        }
+        int[] result = new int[k];
+        for(int i = k - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--n];
+            siftDown(heap, n, totals);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int i, double[] key) {
+        int id = heap[i];
+        while(i > 0) {
+            int parent = (i - 1) >>> 1;
+            if(key[heap[parent]] <= key[id]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = id;
+    }
+
+    private static void siftDown(int[] heap, int n, double[] key) {
+        if(n == 0) {
+            return;
+        }
+        int id = heap[0];
+        int i = 0;
+        while(2 * i + 1 < n) {
+            int child = 2 * i + 1;
+            if(child + 1 < n && key[heap[child + 1]] < key[heap[child]]) {
+                child++;
+            }
+            if(key[id] <= key[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = id;
+    }
+
+}
@@ -1,6 +1,4 @@
-package honorscltracker;
-
-import java.util.GregorianCalendar;
+package honorscltracker.core;
 
 /**
  * Class describing a single Complementary Learning activity on a single day at
@@ -13,14 +11,16 @@ import java.util.GregorianCalendar;
  */
 public class CLActivity implements Comparable<CLActivity> {
     
-    private GregorianCalendar date;
+    private int date; //days since 1/1/1970
 
     /**
-     * Get the date on which the activity was performed.
+     * Get the date on which the activity was performed, as a number of days
+     * since 1/1/1970.
      *
-     * @return the the on which the activity was performed
+     * @return the day on which the activity was performed
+     * @see Dates
      */
-    public GregorianCalendar getDate() {
+    public int getEpochDay() {
         return date;
     }
     
@@ -70,10 +70,12 @@ public class CLActivity implements Comparable<CLActivity> {
     /**
      * Sets the date on which the comp learning activity was performed.
      *
-     * @param date the date the comp learning activity was performed on
+     * @param epochDay the day the comp learning activity was performed on, as
+     * a number of days since 1/1/1970
+     * @see Dates#of(int, int, int)
      */
-    public void setDate(GregorianCalendar date) {
-        this.date = date;
+    public void setEpochDay(int epochDay) {
+        this.date = epochDay;
     }
     
     private Contact contact;
@@ -124,8 +126,8 @@ public class CLActivity implements Comparable<CLActivity> {
      * Compares two comp learning activities, based first on an alphabetic
      * comparison of their primary descriptions, then based on their dates if
      * the descriptions are identical. Descriptions are compared using 
-     * <code>String.compareTo(String)</code>, and dates are compared using
-     * <code>GregorianCalendar.compareTo(GregorianCalendar)</code>
+     * <code>String.compareTo(String)</code>, and dates are compared as
+     * numbers of days since 1/1/1970
      * 
      * @param o the <code>CLActivity</code> to which this activity is to be
      * compared
@@ -138,13 +140,12 @@ public class CLActivity implements Comparable<CLActivity> {
      * descriptions are equal and this activity's date is chronologically before
      * <code>o</code>'s date
      * @see String#compareTo(String)
-     * @see java.util.Calendar#compareTo(java.util.Calendar)
      */
     @Override
     public int compareTo(CLActivity o) {
         int a = this.desc.compareTo(o.desc);
         if(a == 0) {
-            return this.date.compareTo(o.date);
+            return (date < o.date) ? -1 : ((date == o.date) ? 0 : 1);
         } else {
             return a;
         }
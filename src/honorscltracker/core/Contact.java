@@ -0,0 +1,77 @@
+package honorscltracker.core;
+
+import java.util.Objects;
+
+/**
+ * Describes contact information for comp learning activities.  Includes name,
+ * email, and phone number.  Contacts are immutable, so one instance can be
+ * shared by every activity with the same person in charge; two contacts are
+ * equal if their name, email and phone number are all equal.
+ * @see ContactRegistry
+ * @author Connor Pierce
+ */
+public final class Contact {
+
+    private final String name;
+    private final String email;
+    private final String phone;
+
+    /**
+     * Creates a contact with the given details.
+     *
+     * @param name the contact's name
+     * @param email the contact's email address
+     * @param phone the contact's phone number
+     */
+    public Contact(String name, String email, String phone) {
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+    }
+
+    /**
+     * Get the value of name
+     *
+     * @return the value of name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the value of email
+     *
+     * @return the value of email
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Get the value of phone
+     *
+     * @return the value of phone
+     */
+    public String getPhone() {
+        return phone;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(this == obj) {
+            return true;
+        }
+        if(!(obj instanceof Contact)) {
+            return false;
+        }
+        Contact other = (Contact) obj;
+        return Objects.equals(name, other.name) && Objects.equals(email, other.email)
+                && Objects.equals(phone, other.phone);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, email, phone);
+    }
+
+}
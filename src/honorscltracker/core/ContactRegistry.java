@@ -0,0 +1,78 @@
+package honorscltracker.core;
+
+import java.util.HashMap;
+
+/**
+ * Keeps one shared copy of each distinct contact and description, so that a
+ * file in which the same person or organization appears hundreds of times
+ * holds a single <code>Contact</code> for that person and a single
+ * <code>String</code> for each of its fields.  Every <code>YearList</code>
+ * has a registry, through which each activity added to it is passed.
+ *
+ * Unlike <code>String.intern()</code>, the shared copies belong to the
+ * registry, and are released along with it when a different file is opened.
+ * A registry must only be used on one thread at a time.
+ * @author Connor Pierce
+ */
+public final class ContactRegistry {
+    private final HashMap<Contact, Contact> contacts = new HashMap<>();
+    private final HashMap<String, String> strings = new HashMap<>();
+
+    /**
+     * Returns the shared contact equal to the given one, registering it if no
+     * equal contact has been seen before.
+     * @param c a contact
+     * @return the registered contact with the same name, email and phone
+     * number as <code>c</code>, or <code>null</code> if <code>c</code> is
+     * <code>null</code>
+     */
+    public Contact canonical(Contact c) {
+        if(c == null) {
+            return null;
+        }
+        Contact shared = contacts.get(c);
+        if(shared == null) {
+            shared = new Contact(intern(c.getName()), intern(c.getEmail()), intern(c.getPhone()));
+            contacts.put(shared, shared);
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the shared copy of the given string, registering it if it has
+     * not been seen before.
+     * @param s a string, such as an activity's description
+     * @return the registered string equal to <code>s</code>, or
+     * <code>null</code> if <code>s</code> is <code>null</code>
+     */
+    public String intern(String s) {
+        if(s == null) {
+            return null;
+        }
+        String shared = strings.get(s);
+        if(shared == null) {
+            strings.put(s, s);
+            shared = s;
+        }
+        return shared;
+    }
+
+    /**
+     * Makes the given activity use the shared copies of its description and
+     * contact.
+     * @param c the activity to update
+     */
+    void share(CLActivity c) {
+        c.setDesc(intern(c.getDesc()));
+        c.setContact(canonical(c.getContact()));
+    }
+
+    /**
+     * Returns the number of distinct contacts registered.
+     * @return the number of distinct contacts
+     */
+    public int size() {
+        return contacts.size();
+    }
+
+}
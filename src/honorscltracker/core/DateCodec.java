@@ -0,0 +1,114 @@
+package honorscltracker.core;
+
+import java.text.ParseException;
+
+/**
+ * Formats and parses dates in the <code>M/d/yyyy</code> form used by .cl
+ * files and shown throughout the GUI (e.g. <code>9/15/2012</code>).  Dates
+ * are epoch days, as stored by <code>CLActivity</code>.
+ *
+ * The codec has no state, so unlike a shared <code>SimpleDateFormat</code> it
+ * can be used from any number of threads at once.  Formatting appends
+ * straight into a caller-supplied <code>StringBuilder</code>, and parsing
+ * reads the characters in place, so neither allocates.
+ * @author Connor Pierce
+ */
+public final class DateCodec {
+
+    private DateCodec() {
+    }
+
+    /**
+     * Appends the given date in <code>M/d/yyyy</code> form.
+     * @param epochDay the date, as a number of days since 1/1/1970
+     * @param out the buffer to append to
+     * @return <code>out</code>
+     */
+    public static StringBuilder format(int epochDay, StringBuilder out) {
+        return out.append(Dates.getMonth(epochDay)).append('/')
+                .append(Dates.getDayOfMonth(epochDay)).append('/')
+                .append(Dates.getYear(epochDay));
+    }
+
+    /**
+     * Returns the given date in <code>M/d/yyyy</code> form.
+     * @param epochDay the date, as a number of days since 1/1/1970
+     * @return the formatted date
+     */
+    public static String format(int epochDay) {
+        return format(epochDay, new StringBuilder(10)).toString();
+    }
+
+    /**
+     * Parses a date in <code>M/d/yyyy</code> form.  Leading zeros and
+     * surrounding whitespace are allowed; anything else, including a day
+     * that does not exist in its month, is an error.
+     * @param s the text to parse
+     * @return the date, as a number of days since 1/1/1970
+     * @throws ParseException if <code>s</code> is not a valid date
+     */
+    public static int parse(CharSequence s) throws ParseException {
+        return parse(s, 0, s.length());
+    }
+
+    /**
+     * Parses a date in <code>M/d/yyyy</code> form from part of a character
+     * sequence.
+     * @param s the text containing the date
+     * @param from the index of the first character of the date
+     * @param to the index after the last character of the date
+     * @return the date, as a number of days since 1/1/1970
+     * @throws ParseException if the characters are not a valid date; the
+     * error offset is the index in <code>s</code> of the problem
+     */
+    public static int parse(CharSequence s, int from, int to) throws ParseException {
+        while(from < to && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        while(to > from && Character.isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        int month = 0, day = 0, year;
+        int field = 0, value = 0, digits = 0;
+        for(int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if(c >= '0' && c <= '9') {
+                if(++digits > 9) {
+                    throw new ParseException("Number too long in date: " + s, i);
+                }
+                value = value * 10 + (c - '0');
+            } else if(c == '/' && digits > 0 && field < 2) {
+                if(field++ == 0) {
+                    month = value;
+                } else {
+                    day = value;
+                }
+                value = 0;
+                digits = 0;
+            } else {
+                throw new ParseException("Invalid date: " + s, i);
+            }
+        }
+        if(field != 2 || digits == 0) {
+            throw new ParseException("Incomplete date: " + s, to);
+        }
+        year = value;
+        if(month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            throw new ParseException("No such date: " + s, from);
+        }
+        return Dates.of(year, month, day);
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch(month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4: case 6: case 9: case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+}
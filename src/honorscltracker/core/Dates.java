@@ -0,0 +1,107 @@
+package honorscltracker.core;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+/**
+ * Conversions for dates stored as a number of days since 1/1/1970 (an
+ * "epoch day"), which is how <code>CLActivity</code> stores the date of an
+ * activity.  An epoch day is a plain <code>int</code>: it takes four bytes,
+ * cannot be changed through a shared reference, and two dates compare by
+ * integer comparison.  The conversions use the days-from-civil algorithm for
+ * the proleptic Gregorian calendar, and never depend on the time zone.
+ * @author Connor Pierce
+ */
+public final class Dates {
+
+    private Dates() {
+    }
+
+    /**
+     * Returns the epoch day of the given date.
+     * @param year the year, e.g. 2012
+     * @param month the month, from 1 (January) to 12 (December)
+     * @param day the day of the month, from 1
+     * @return the number of days from 1/1/1970 to the given date
+     */
+    public static int of(int year, int month, int day) {
+        long y = year - ((month <= 2) ? 1 : 0);
+        long era = floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return (int) (era * 146097 + doe - 719468);
+    }
+
+    /**
+     * Returns the epoch day of the date shown by a calendar.  The time of day
+     * is ignored.
+     * @param date the calendar to convert
+     * @return the number of days from 1/1/1970 to <code>date</code>'s date
+     */
+    public static int of(Calendar date) {
+        return of(date.get(Calendar.YEAR), date.get(Calendar.MONTH) + 1,
+                date.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /**
+     * Returns the year of the given epoch day.
+     * @param epochDay a number of days since 1/1/1970
+     * @return the year, e.g. 2012
+     */
+    public static int getYear(int epochDay) {
+        return civil(epochDay) >> 9;
+    }
+
+    /**
+     * Returns the month of the given epoch day.
+     * @param epochDay a number of days since 1/1/1970
+     * @return the month, from 1 (January) to 12 (December)
+     */
+    public static int getMonth(int epochDay) {
+        return (civil(epochDay) >> 5) & 15;
+    }
+
+    /**
+     * Returns the day of the month of the given epoch day.
+     * @param epochDay a number of days since 1/1/1970
+     * @return the day of the month, from 1
+     */
+    public static int getDayOfMonth(int epochDay) {
+        return civil(epochDay) & 31;
+    }
+
+    /**
+     * Returns midnight, in the default time zone, at the start of the given
+     * epoch day, for use with <code>java.text</code> formats.
+     * @param epochDay a number of days since 1/1/1970
+     * @return the start of that day
+     */
+    public static Date toDate(int epochDay) {
+        int ymd = civil(epochDay);
+        return new GregorianCalendar(ymd >> 9, ((ymd >> 5) & 15) - 1, ymd & 31).getTime();
+    }
+
+    /*
+     * The year, month (1-12) and day of an epoch day, packed into one int as
+     * year << 9 | month << 5 | day so that no array has to be allocated
+     */
+    private static int civil(int epochDay) {
+        long z = epochDay + 719468L;
+        long era = floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long d = doy - (153 * mp + 2) / 5 + 1;
+        long m = (mp < 10) ? mp + 3 : mp - 9;
+        long y = yoe + era * 400 + ((m <= 2) ? 1 : 0);
+        return (int) (y << 9 | m << 5 | d);
+    }
+
+    private static long floorDiv(long x, long y) {
+        return (x >= 0) ? x / y : (x - y + 1) / y;
+    }
+
+}
@@ -0,0 +1,147 @@
+package honorscltracker.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The values previously entered for comp learning activities, for suggesting
+ * completions on the data entry screen: every description, and the name,
+ * email and phone number of every contact, each in a {@link PrefixIndex}.
+ * Also remembers the contact of the most recent activity under each
+ * description, and the most recent details for each contact name, so that
+ * choosing a known description or contact can fill in the rest.
+ *
+ * The suggestions are kept up to date by their {@link YearList} as
+ * activities are added.  Activities that are removed are still suggested.
+ * @author Connor Pierce
+ */
+public final class EntrySuggestions {
+    private final PrefixIndex descs, names, emails, phones;
+    private final HashMap<String, CLActivity> latestByDesc = new HashMap<>();
+    private final HashMap<String, CLActivity> latestByName = new HashMap<>();
+
+    /**
+     * Collects the suggestions from every activity in the given list.
+     * @param years the activities entered so far
+     */
+    EntrySuggestions(YearList years) {
+        ArrayList<String> descList = new ArrayList<>();
+        ArrayList<String> nameList = new ArrayList<>();
+        ArrayList<String> emailList = new ArrayList<>();
+        ArrayList<String> phoneList = new ArrayList<>();
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                descList.add(d);
+                String descKey = PrefixIndex.key(d);
+                for(CLActivity c : y.getCLActivities(d)) {
+                    Contact contact = c.getContact();
+                    if(contact != null) {
+                        nameList.add(contact.getName());
+                        emailList.add(contact.getEmail());
+                        phoneList.add(contact.getPhone());
+                    }
+                    remember(descKey, c);
+                }
+            }
+        }
+        descs = new PrefixIndex(descList);
+        names = new PrefixIndex(nameList);
+        emails = new PrefixIndex(emailList);
+        phones = new PrefixIndex(phoneList);
+    }
+
+    /**
+     * Adds the values of a newly entered activity to the suggestions.
+     * @param c the activity that was added
+     */
+    void add(CLActivity c) {
+        descs.add(c.getDesc());
+        Contact contact = c.getContact();
+        if(contact != null) {
+            names.add(contact.getName());
+            emails.add(contact.getEmail());
+            phones.add(contact.getPhone());
+        }
+        remember(PrefixIndex.key(c.getDesc()), c);
+    }
+
+    /*
+     * Records c as the latest activity for its description and contact name,
+     * if it is dated no earlier than the one recorded so far
+     */
+    private void remember(String descKey, CLActivity c) {
+        rememberLatest(latestByDesc, descKey, c);
+        if(c.getContact() != null) {
+            rememberLatest(latestByName, PrefixIndex.key(c.getContact().getName()), c);
+        }
+    }
+
+    private static void rememberLatest(HashMap<String, CLActivity> map, String key, CLActivity c) {
+        if(key == null) {
+            return;
+        }
+        CLActivity latest = map.get(key);
+        if(latest == null || latest.getEpochDay() <= c.getEpochDay()) {
+            map.put(key, c);
+        }
+    }
+
+    /**
+     * Returns the descriptions of previous activities.
+     * @return an index of every description entered
+     */
+    public PrefixIndex getDescs() {
+        return descs;
+    }
+
+    /**
+     * Returns the names of previous activities' contacts.
+     * @return an index of every contact name entered
+     */
+    public PrefixIndex getContactNames() {
+        return names;
+    }
+
+    /**
+     * Returns the email addresses of previous activities' contacts.
+     * @return an index of every contact email entered
+     */
+    public PrefixIndex getContactEmails() {
+        return emails;
+    }
+
+    /**
+     * Returns the phone numbers of previous activities' contacts.
+     * @return an index of every contact phone number entered
+     */
+    public PrefixIndex getContactPhones() {
+        return phones;
+    }
+
+    /**
+     * Returns the contact of the most recent activity with the given
+     * description (ignoring case).
+     * @param desc a short description
+     * @return the contact of the latest activity under <code>desc</code>, or
+     * <code>null</code> if there is none
+     */
+    public Contact getLatestContact(String desc) {
+        String key = PrefixIndex.key(desc);
+        CLActivity c = (key == null) ? null : latestByDesc.get(key);
+        return (c == null) ? null : c.getContact();
+    }
+
+    /**
+     * Returns the most recently entered details of the contact with the given
+     * name (ignoring case).
+     * @param name a contact's name
+     * @return the contact of the latest activity with a contact of that
+     * name, or <code>null</code> if there is none
+     */
+    public Contact getContact(String name) {
+        String key = PrefixIndex.key(name);
+        CLActivity c = (key == null) ? null : latestByName.get(key);
+        return (c == null) ? null : c.getContact();
+    }
+
+}
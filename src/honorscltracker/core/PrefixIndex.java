@@ -0,0 +1,139 @@
+package honorscltracker.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * A set of strings that can be searched by prefix, for suggesting completions
+ * as the user types.  The strings are kept in a sorted array, compared
+ * ignoring case, so finding the completions of a prefix is a binary search
+ * for the first string not less than the prefix followed by a scan of the
+ * strings that start with it.  Strings differing only in case are stored
+ * once, in the form in which they were first added.
+ * @author Connor Pierce
+ */
+public final class PrefixIndex {
+    private String[] keys; //lower case, sorted
+    private String[] values; //as added, in the same order as keys
+    private int size;
+
+    /**
+     * Creates an index containing the given strings.  Blank strings and
+     * <code>null</code>s are ignored.
+     * @param strings the strings to index
+     */
+    PrefixIndex(Collection<String> strings) {
+        //repeated values are common, so drop exact duplicates before keying
+        TreeMap<String, String> sorted = new TreeMap<>();
+        for(String s : new LinkedHashSet<>(strings)) {
+            String key = key(s);
+            if(key != null && !sorted.containsKey(key)) {
+                sorted.put(key, s.trim());
+            }
+        }
+        size = sorted.size();
+        keys = sorted.keySet().toArray(new String[Math.max(16, size)]);
+        values = sorted.values().toArray(new String[Math.max(16, size)]);
+    }
+
+    /**
+     * Adds a string to the index, unless it is blank or the index already
+     * contains it (ignoring case).
+     * @param s the string to add
+     */
+    void add(String s) {
+        String key = key(s);
+        if(key == null) {
+            return;
+        }
+        int i = lowerBound(key);
+        if(i < size && keys[i].equals(key)) {
+            return;
+        }
+        if(size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(values, i, values, i + 1, size - i);
+        keys[i] = key;
+        values[i] = s.trim();
+        size++;
+    }
+
+    /**
+     * Returns the number of strings in the index.
+     * @return the number of distinct strings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the strings beginning with the given prefix, ignoring case.
+     * @param prefix the text typed so far
+     * @param limit the maximum number of strings to return
+     * @return at most <code>limit</code> strings starting with
+     * <code>prefix</code>, in alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        List<String> result = new ArrayList<>();
+        String key = key(prefix);
+        if(key == null) {
+            return result;
+        }
+        for(int i = lowerBound(key); i < size && result.size() < limit
+                && keys[i].startsWith(key); i++) {
+            result.add(values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the indexed form of the given string, ignoring case.
+     * @param s a string that may be in the index
+     * @return the string as it was first added, or <code>null</code> if the
+     * index does not contain it
+     */
+    public String find(String s) {
+        String key = key(s);
+        if(key == null) {
+            return null;
+        }
+        int i = lowerBound(key);
+        return (i < size && keys[i].equals(key)) ? values[i] : null;
+    }
+
+    /*
+     * The position of the first key not less than the given one
+     */
+    private int lowerBound(String key) {
+        int lo = 0, hi = size;
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(keys[mid].compareTo(key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * The string used for comparisons, or null for a blank string
+     */
+    static String key(String s) {
+        if(s == null) {
+            return null;
+        }
+        s = s.trim();
+        return s.isEmpty() ? null : s.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,289 @@
+package honorscltracker.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An in-memory inverted index for finding comp learning activities by the
+ * words in their description, contact name, email and phone number, and
+ * details (with HTML markup removed).  Words are compared ignoring case, and
+ * every word of a query is treated as a prefix, so "tut jon" finds an
+ * activity described as "Tutoring" with a contact named "Jones".
+ *
+ * Each word maps to a list of activity numbers.  A query collects the
+ * numbers under each of its words into a bit set and intersects the sets, so
+ * its cost depends on how many activities contain the query's words rather
+ * than on how many activities there are.  Removing an activity only marks
+ * its number as unused; the lists are rebuilt once more than half the
+ * numbers are unused.
+ *
+ * The index is kept up to date by its {@link YearList}, and must only be
+ * used on the thread that changes the list.
+ * @author Connor Pierce
+ */
+public final class SearchIndex {
+    private final HashMap<String, Postings> words = new HashMap<>();
+    private final TreeMap<String, Postings> sortedWords = new TreeMap<>(); //for prefixes
+    private final IdentityHashMap<CLActivity, Integer> ids = new IdentityHashMap<>();
+    private CLActivity[] activities = new CLActivity[64]; //by number; null if removed
+    private int nextId;
+
+    /**
+     * Builds an index of every activity in the given list.
+     * @param years the activities to index
+     */
+    SearchIndex(YearList years) {
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity c : y.getCLActivities(d)) {
+                    add(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an activity to the index.  Adding an activity that is already
+     * indexed has no effect.
+     * @param c the activity to add
+     */
+    void add(CLActivity c) {
+        if(ids.containsKey(c)) {
+            return;
+        }
+        int id = nextId++;
+        if(id == activities.length) {
+            activities = Arrays.copyOf(activities, id * 2);
+        }
+        activities[id] = c;
+        ids.put(c, id);
+        for(String w : getWords(c)) {
+            Postings p = words.get(w);
+            if(p == null) {
+                p = new Postings();
+                words.put(w, p);
+                sortedWords.put(w, p);
+            }
+            p.add(id);
+        }
+    }
+
+    /**
+     * Removes an activity from the index.
+     * @param c the activity to remove
+     */
+    void remove(CLActivity c) {
+        Integer id = ids.remove(c);
+        if(id == null) {
+            return;
+        }
+        activities[id] = null;
+        if(nextId > 1024 && ids.size() < nextId / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the number of activities in the index.
+     * @return the number of indexed activities
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Finds the activities containing every word of the query, each as a
+     * prefix of some word of the activity.
+     * @param query the words to search for
+     * @param limit the maximum number of activities to return
+     * @return at most <code>limit</code> matching activities, the most
+     * recently indexed first
+     */
+    public List<CLActivity> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if(terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        BitSet matches = null;
+        for(String t : terms) {
+            BitSet found = new BitSet(nextId);
+            for(Postings p : withPrefix(t).values()) {
+                p.addTo(found);
+            }
+            if(matches == null) {
+                matches = found;
+            } else {
+                matches.and(found);
+            }
+            if(matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+        ArrayList<CLActivity> result = new ArrayList<>();
+        for(int id = matches.previousSetBit(nextId - 1); id >= 0 && result.size() < limit;
+                id = matches.previousSetBit(id - 1)) {
+            if(activities[id] != null) {
+                result.add(activities[id]);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * The words beginning with the given prefix
+     */
+    private NavigableMap<String, Postings> withPrefix(String prefix) {
+        return sortedWords.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /*
+     * Renumbers the remaining activities so that the postings lists no
+     * longer contain removed ones
+     */
+    private void compact() {
+        CLActivity[] live = new CLActivity[ids.size()];
+        int n = 0;
+        for(int id = 0; id < nextId; id++) {
+            if(activities[id] != null) {
+                live[n++] = activities[id];
+            }
+        }
+        words.clear();
+        sortedWords.clear();
+        ids.clear();
+        activities = new CLActivity[Math.max(64, live.length * 2)];
+        nextId = 0;
+        for(CLActivity c : live) {
+            add(c);
+        }
+    }
+
+    /*
+     * Every distinct word under which the activity is indexed
+     */
+    private static List<String> getWords(CLActivity c) {
+        StringBuilder text = new StringBuilder();
+        appendWords(text, c.getDesc());
+        Contact contact = c.getContact();
+        if(contact != null) {
+            appendWords(text, contact.getName());
+            appendWords(text, contact.getEmail());
+            String phone = contact.getPhone();
+            appendWords(text, phone);
+            if(phone != null) {
+                //also index the phone number's digits run together
+                for(int i = 0; i < phone.length(); i++) {
+                    if(Character.isDigit(phone.charAt(i))) {
+                        text.append(phone.charAt(i));
+                    }
+                }
+                text.append(' ');
+            }
+        }
+        appendText(text, c.getDetails());
+        List<String> result = tokenize(text);
+        Collections.sort(result);
+        int n = 0;
+        for(int i = 0; i < result.size(); i++) {
+            if(n == 0 || !result.get(i).equals(result.get(n - 1))) {
+                result.set(n++, result.get(i));
+            }
+        }
+        return result.subList(0, n);
+    }
+
+    private static void appendWords(StringBuilder out, String s) {
+        if(s != null) {
+            out.append(s).append(' ');
+        }
+    }
+
+    /**
+     * Appends the text of an HTML fragment, without its tags, to the given
+     * buffer.  The common character entities are decoded, and anything
+     * between &lt; and &gt; is replaced by a space.
+     * @param out the buffer to append the text to
+     * @param html the HTML fragment
+     */
+    static void appendText(StringBuilder out, String html) {
+        if(html == null) {
+            return;
+        }
+        int n = html.length();
+        for(int i = 0; i < n; i++) {
+            char ch = html.charAt(i);
+            if(ch == '<') {
+                int end = html.indexOf('>', i);
+                if(end < 0) {
+                    break;
+                }
+                out.append(' ');
+                i = end;
+            } else if(ch == '&') {
+                int end = html.indexOf(';', i);
+                if(end < 0 || end - i > 8) {
+                    out.append(' ');
+                    continue;
+                }
+                switch(html.substring(i + 1, end)) {
+                    case "amp": out.append('&'); break;
+                    case "lt": out.append('<'); break;
+                    case "gt": out.append('>'); break;
+                    case "quot": out.append('"'); break;
+                    case "apos": case "#39": out.append('\''); break;
+                    default: out.append(' ');
+                }
+                i = end;
+            } else {
+                out.append(ch);
+            }
+        }
+    }
+
+    /*
+     * Splits text into lower-case words of letters and digits
+     */
+    private static List<String> tokenize(CharSequence text) {
+        List<String> result = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for(int i = 0; i <= text.length(); i++) {
+            char ch = (i < text.length()) ? text.charAt(i) : ' ';
+            if(Character.isLetterOrDigit(ch)) {
+                word.append(Character.toLowerCase(ch));
+            } else if(word.length() > 0) {
+                result.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * The numbers of the activities containing one word, in increasing order
+     */
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int id) {
+            if(size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        void addTo(BitSet set) {
+            for(int i = 0; i < size; i++) {
+                set.set(ids[i]);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,232 @@
+package honorscltracker.core;
+
+import honorscltracker.core.io.CLFiles;
+import honorscltracker.core.io.CLJournal;
+import honorscltracker.core.io.ProgressHandler;
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Stack;
+
+/**
+ * An open tracker: the comp learning activities of one student, the file
+ * they were loaded from (if any), the journal of changes made since that
+ * file was last saved, and the history of changes for undo.  This is
+ * everything the GUI holds about an open file, with no dependency on JavaFX,
+ * so a tracker can be opened, queried, edited and saved by programs that run
+ * without a display.
+ *
+ * Opening and saving read and write files, and may take a long time for a
+ * large tracker; the GUI runs them in the background.  A
+ * <code>Tracker</code> is not thread-safe: apart from those two operations,
+ * it must only be used on one thread at a time.
+ * @author Connor Pierce
+ */
+public class Tracker {
+    private YearList years = new YearList();
+    private File file;
+    private CLJournal journal;
+    private final Stack<UserAction> undo = new Stack<>(), redo = new Stack<>();
+    private boolean unsavedChanges = false;
+    private boolean saving = false; //a save has begun and not yet finished
+
+    /**
+     * Creates a new, empty tracker that is not associated with a file.
+     */
+    public Tracker() {
+    }
+
+    /**
+     * Opens the given .cl file or snapshot, applying any changes recorded in
+     * its journal since it was last saved.
+     * @param f the file to open
+     * @param progress receives progress reports, or <code>null</code>
+     * @return a tracker holding the file's activities
+     * @throws ParseException if the file or its journal is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static Tracker open(File f, ProgressHandler progress)
+            throws ParseException, IOException {
+        Tracker t = new Tracker();
+        CLFiles.load(f, t.years, progress);
+        new CLJournal(f).replay(t.years, true);
+        t.file = f;
+        t.journal = new CLJournal(f);
+        return t;
+    }
+
+    /**
+     * Reads the activities of the given .cl file or snapshot, including any
+     * changes recorded in its journal, exactly as {@link #open(File,
+     * ProgressHandler)} would, but without modifying any file: a stale
+     * journal is ignored rather than deleted.
+     * @param f the file to read
+     * @param progress receives progress reports, or <code>null</code>
+     * @return the file's activities
+     * @throws ParseException if the file or its journal is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static YearList read(File f, ProgressHandler progress)
+            throws ParseException, IOException {
+        YearList years = new YearList();
+        CLFiles.load(f, years, progress);
+        new CLJournal(f).replay(years, false);
+        return years;
+    }
+
+    /**
+     * Returns the activities in this tracker, by academic year.  The
+     * returned list also provides the search, suggestion and per-contact
+     * queries over the activities.
+     * @return the years of this tracker
+     */
+    public YearList getYears() {
+        return years;
+    }
+
+    /**
+     * Returns the file this tracker was opened from or last saved to.
+     * @return the tracker's file, or <code>null</code> if it has never been
+     * saved
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the journal that changes to this tracker should be appended
+     * to.  Changes are not journaled until the tracker has a file.
+     * @return the journal of the tracker's file, or <code>null</code> if the
+     * tracker has no file
+     */
+    public CLJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns whether this tracker has changes that are neither saved nor,
+     * for lack of a file, journaled.
+     * @return <code>true</code> if there are unsaved changes
+     */
+    public boolean hasUnsavedChanges() {
+        return unsavedChanges;
+    }
+
+    /**
+     * Adds a new comp learning activity.
+     * @param c the activity to add
+     * @return the change, for appending to the journal
+     */
+    public UserAction add(CLActivity c) {
+        years.addData(c);
+        UserAction action = UserAction.addition(c);
+        undo.push(action);
+        redo.clear();
+        changed();
+        return action;
+    }
+
+    /**
+     * Replaces a comp learning activity with an edited version of it,
+     * moving it to a different academic year if its year was changed.
+     * @param old the activity as it was
+     * @param e the activity as edited
+     * @return the change, for appending to the journal, or <code>null</code>
+     * if this tracker does not contain <code>old</code>, in which case
+     * nothing is changed
+     */
+    public UserAction replace(CLActivity old, CLActivity e) {
+        Year y = years.get(old.getStartYr());
+        if(y == null) {
+            return null;
+        }
+        if(old.getStartYr() == e.getStartYr()) {
+            if(!y.replaceCLActivity(old, e)) {
+                return null;
+            }
+        } else {
+            if(!y.removeCLActivity(old)) {
+                return null;
+            }
+            years.addData(e);
+        }
+        changed();
+        return UserAction.edit(old, e);
+    }
+
+    /**
+     * Prepares to save this tracker to the given file, which becomes the
+     * tracker's file.  The returned snapshot is unaffected by later changes,
+     * so it can be written by {@link #save(YearList, File, ProgressHandler)}
+     * in the background while the tracker continues to be edited; changes
+     * made meanwhile go to a new journal.
+     * @param f the file to save to
+     * @return a snapshot of the tracker's activities
+     */
+    public YearList beginSave(File f) {
+        saving = true;
+        file = f;
+        journal = new CLJournal(f);
+        return years.snapshot();
+    }
+
+    /**
+     * Writes a snapshot from {@link #beginSave(File)} to its file and
+     * deletes the journal it supersedes.  Call {@link #saved()} once this
+     * has succeeded.
+     * @param snapshot the activities to save
+     * @param f the file to save to
+     * @param progress receives progress reports, or <code>null</code>
+     * @throws IOException if the file cannot be written
+     */
+    public static void save(YearList snapshot, File f, ProgressHandler progress)
+            throws IOException {
+        CLFiles.save(snapshot, f, progress);
+        new CLJournal(f).delete();
+    }
+
+    /**
+     * Records that a save of this tracker has finished.
+     */
+    public void saved() {
+        saving = false;
+        unsavedChanges = false;
+    }
+
+    /**
+     * Records that a save of this tracker has failed.  Any unsaved changes
+     * remain unsaved.
+     */
+    public void saveFailed() {
+        saving = false;
+    }
+
+    /**
+     * Returns whether a save begun with {@link #beginSave(File)} has not yet
+     * finished.  Such a save also folds the journal back into the file, so
+     * there is no need to start another to compact it.
+     * @return <code>true</code> if a save is in progress
+     */
+    public boolean isSaving() {
+        return saving;
+    }
+
+    /**
+     * Records that a change could not be written to the journal, so the
+     * tracker has unsaved changes until it is next saved in full.
+     */
+    public void unsaved() {
+        unsavedChanges = true;
+    }
+
+    /*
+     * Until the tracker has a file, changes cannot be journaled and are only
+     * flagged as unsaved
+     */
+    private void changed() {
+        if(journal == null) {
+            unsavedChanges = true;
+        }
+    }
+
+}
@@ -1,4 +1,4 @@
-package honorscltracker;
+package honorscltracker.core;
 
 /**
  * Represents a user action, such as adding/deleting/editing a CLActivity.  Used
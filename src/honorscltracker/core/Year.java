@@ -0,0 +1,342 @@
+package honorscltracker.core;
+
+import java.util.*;
+
+/**
+ * A collection of comp learning activities for a single academic year.
+ * It is assumed that the short description of activities will typically be the
+ * name of the organization with which the activity was performed, so activities
+ * are grouped by their short description to provide the most logical
+ * organization.
+ *
+ * Each group is a linked list, and every activity is mapped (by identity) to
+ * its link, so removing or replacing an activity takes constant time however
+ * many activities share its description, and the remaining activities keep
+ * their order.
+ * @author Connor Pierce
+ */
+public class Year {
+    private SortedSet<String> descs;
+    private HashMap<String, Group> clActivities;
+    private IdentityHashMap<CLActivity, Link> links;
+    private final YearSummary summary = new YearSummary();
+    private int startYr, size;
+    YearList list; //the list containing this year, told of every change
+    
+    /**
+     * Creates a new <code>Year</code> object to represent the given academic
+     * year.  The year given should be the start of the desired academic year;
+     * for the 2012-13 academic year, for example, <code>year</code> should be
+     * given as 2012.
+     * @param year the starting year for the academic year; for the academic
+     * year 2012-2013, this should be <code>2012</code>, for example
+     */
+    public Year(int year) {
+        startYr = year;
+        descs = new TreeSet<>();
+        clActivities = new HashMap<>();
+        links = new IdentityHashMap<>();
+        size = 0;
+    }
+    
+    /**
+     * Adds a comp learning activity to this year. The activity is automatically
+     * grouped with other activities of the same description, or if no
+     * activities exist with the given description, this activity is placed in
+     * its own group.  Adding an activity that is already in this year has no
+     * effect.
+     * @param e the comp learning activity to be added
+     */
+    public void addCLActivity(CLActivity e) {
+        if(links.containsKey(e)) {
+            return;
+        }
+        if(list != null) {
+            list.share(e);
+        }
+        String d = e.getDesc();
+        Group g = clActivities.get(d);
+        if(g == null) {
+            g = new Group(d);
+            clActivities.put(d, g);
+            descs.add(d);
+        }
+        Link l = new Link(g, e);
+        g.append(l);
+        links.put(e, l);
+        summary.add(e);
+        size++;
+        if(list != null) {
+            list.activityAdded(e);
+        }
+    }
+    
+    /**
+     * Returns a string representing this academic year, in the format 
+     * <code>"XXXX-XX"</code>.
+     * @return string representation of this academic year, in the format
+     * <code>"XXXX-XX"</code>
+     */
+    public String getYearString() {
+        String s = startYr + "-";
+        if((startYr + 1) % 100 < 10) {
+            s += "0";
+        } 
+        s += ((startYr + 1) % 100);
+        return s;
+    }
+    
+    /**
+     * Removes the given comp learning activity from this year. If this year did
+     * not contain the activity, returns false.  Otherwise, this method returns
+     * true. If the given activity is the only activity with that description,
+     * the activity is removed, and the description is removed from the list of
+     * descriptions.
+     * @param e the comp learning activity to remove
+     * @return <code>true</code> if the activity was contained in this year,
+     * <code>false</code> otherwise
+     */
+    public boolean removeCLActivity(CLActivity e) {
+        Link l = links.remove(e);
+        if(l == null) {
+            return false;
+        }
+        Group g = l.group;
+        g.unlink(l);
+        if(g.size < 1) {
+            clActivities.remove(g.desc);
+            descs.remove(g.desc);
+        }
+        summary.remove(e);
+        size--;
+        if(list != null) {
+            list.activityRemoved(e);
+        }
+        return true;
+    }
+    
+    /**
+     * Replaces a comp learning activity in this year with another.  If both
+     * have the same description, the new activity takes the old one's place
+     * in its group; otherwise the old activity is removed and the new one is
+     * added to the end of its own group.  If this year did not contain
+     * <code>old</code>, nothing is changed.
+     * @param old the comp learning activity to be replaced
+     * @param e the comp learning activity to put in its place
+     * @return <code>true</code> if <code>old</code> was contained in this
+     * year, <code>false</code> otherwise
+     */
+    public boolean replaceCLActivity(CLActivity old, CLActivity e) {
+        Link l = links.get(old);
+        if(l == null) {
+            return false;
+        }
+        if(old == e) {
+            return true;
+        }
+        if(list != null) {
+            list.share(e);
+        }
+        if(l.group.desc.equals(e.getDesc()) && !links.containsKey(e)) {
+            links.remove(old);
+            l.activity = e;
+            links.put(e, l);
+            summary.remove(old);
+            summary.add(e);
+            if(list != null) {
+                list.activityRemoved(old);
+                list.activityAdded(e);
+            }
+        } else {
+            removeCLActivity(old);
+            addCLActivity(e);
+        }
+        return true;
+    }
+    
+    /**
+     * Determines whether this year contains the given comp learning activity
+     * (the same object, not merely an equal one).
+     * @param e the comp learning activity to look for
+     * @return <code>true</code> if this year contains <code>e</code>
+     */
+    public boolean contains(CLActivity e) {
+        return links.containsKey(e);
+    }
+    
+    /**
+     * Returns the number of comp learning activities performed during this
+     * year.
+     * @return the number of comp learning activities contained in this year
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * Returns the running totals for this year: hours and number of
+     * activities, overall and by description, month and contact.  The summary
+     * is kept up to date as activities are added and removed.
+     * @return the summary of this year's comp learning activities
+     */
+    public YearSummary getSummary() {
+        return summary;
+    }
+    
+    /**
+     * Returns a list of all the different activity descriptions contained in
+     * this year. Since comp learning activities are categorized according to
+     * their description, this is the list of all the category names in this
+     * year.
+     * @return a list of all unique comp learning activity descriptions
+     * contained within this list
+     */
+    public SortedSet<String> getAllDescs() {
+        return descs;
+    }
+
+    /**
+     * Determines whether this <code>Year</code> is equal to the given object.
+     * If the given object is non-null, of type <code>Year</code>, and 
+     * represents the same academic year as this <code>Year</code>, this method 
+     * returns true.
+     * @param obj the object to compare for equality
+     * @return true if <code>obj</code> is non-null, of type <code>Year</code>,
+     * and represents the same academic year as this <code>Year</code>
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null) {
+            return false;
+        }
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        final Year other = (Year) obj;
+        if (this.startYr != other.startYr) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 5;
+        hash = 61 * hash + this.startYr;
+        return hash;
+    }
+    
+    /**
+     * Returns all comp learning activities contained within this year that have
+     * the given description, in the order in which they were added.  The
+     * collection is a read-only view: it reflects later changes to this year,
+     * so it should not be iterated while activities are being added or
+     * removed.
+     * @param desc the short description of the desired comp learning activities
+     * @return the comp learning activities with the given description
+     */
+    public Collection<CLActivity> getCLActivities(String desc) {
+        Group value = clActivities.get(desc);
+        if(value == null) {
+            return Collections.emptyList();
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * Gets the numerical value of this academic year. This is the year in which
+     * the academic year began (<code>2012</code> for the 2012-2013 academic 
+     * year, e.g).
+     * @return the calendar year in which this academic year started 
+     */
+    public int getStartYear() {
+        return startYr;
+    }
+    
+    /*
+     * The activities sharing one description, as a doubly linked list
+     */
+    private static class Group extends AbstractCollection<CLActivity> {
+        private final String desc;
+        private Link head, tail;
+        private int size;
+
+        Group(String desc) {
+            this.desc = desc;
+        }
+
+        void append(Link l) {
+            l.prev = tail;
+            if(tail == null) {
+                head = l;
+            } else {
+                tail.next = l;
+            }
+            tail = l;
+            size++;
+        }
+
+        void unlink(Link l) {
+            if(l.prev == null) {
+                head = l.next;
+            } else {
+                l.prev.next = l.next;
+            }
+            if(l.next == null) {
+                tail = l.prev;
+            } else {
+                l.next.prev = l.prev;
+            }
+            l.prev = l.next = null;
+            size--;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<CLActivity> iterator() {
+            return new Iterator<CLActivity>() {
+                private Link next = head;
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public CLActivity next() {
+                    if(next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    CLActivity a = next.activity;
+                    next = next.next;
+                    return a;
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+
+    /*
+     * One activity's place in its group
+     */
+    private static class Link {
+        private final Group group;
+        private CLActivity activity;
+        private Link prev, next;
+
+        Link(Group group, CLActivity activity) {
+            this.group = group;
+            this.activity = activity;
+        }
+    }
+    
+}
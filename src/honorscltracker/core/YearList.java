@@ -0,0 +1,310 @@
+package honorscltracker.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Stores comp learning activities.  Contains a list of <code>Year</code>s, and
+ * contains methods through which comp learning activities are directly added.
+ * <code>Year</code>s are held in an array indexed by their starting year
+ * (offset by the earliest year in the list), so finding the
+ * <code>Year</code> for an activity takes constant time, and iterating over
+ * the list visits the years in chronological order.  A list whose years are
+ * spread over more than a thousand years (which only a mistyped year
+ * can cause) holds them in a sorted map instead, so that a stray year cannot
+ * make the array enormous.
+ *
+ * Every activity added to one of the list's years is made to share its
+ * description and contact with the other activities in the list, through
+ * the list's {@link ContactRegistry}.
+ * @author Connor Pierce
+ */
+public class YearList implements Iterable<Year> {
+    private static final int MAX_SPAN = 1024; //largest range of years held in the array
+    private Year[] years = new Year[0];
+    private int first; //starting year of years[0]
+    private TreeMap<Integer, Year> sparse; //replaces the array once the span is exceeded
+    private int size;
+    private final TreeSet<String> yearNames = new TreeSet<>();
+    private final SortedSet<String> yearNamesView = Collections.unmodifiableSortedSet(yearNames);
+    private SearchIndex search; //built on first use
+    private EntrySuggestions suggestions; //built on first use
+    private final ContactRegistry registry;
+    private HashMap<Contact, Set<CLActivity>> byContact; //built on first use
+
+    /**
+     * Creates an empty list.
+     */
+    public YearList() {
+        this(new ContactRegistry());
+    }
+
+    private YearList(ContactRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Finds the <code>Year</code> to which the <code>CLActivity</code> belongs,
+     * if that <code>Year</code> exists in the list, and adds the
+     * <code>CLActivity</code> to it. If the <code>Year</code> is not contained
+     * in the list, the proper <code>Year</code> is created, added to the list,
+     * and the <code>CLActivity</code> is added.
+     * @param j the <code>CLActivity</code> to be added.
+     */
+    public void addData(CLActivity j) {
+        int year = j.getStartYr();
+        Year m = get(year);
+        if(m == null) {
+            m = new Year(year);
+            m.list = this;
+            if(size == 0) {
+                years = new Year[4];
+                first = year;
+            } else if(sparse == null && (year - first < 0 || year - first >= years.length)) {
+                grow(year);
+            }
+            if(sparse != null) {
+                sparse.put(year, m);
+            } else {
+                years[year - first] = m;
+            }
+            yearNames.add(m.getYearString());
+            size++;
+        }
+        m.addCLActivity(j);
+    }
+
+    /*
+     * Enlarges the array so that it covers the given year, leaving some room
+     * to grow in the same direction.  If the years would span more than
+     * MAX_SPAN, moves them into the sorted map instead.
+     */
+    private void grow(int year) {
+        long lo = Math.min(first, year), hi = Math.max((long) first + years.length, year + 1L);
+        if(hi - lo > MAX_SPAN) {
+            sparse = new TreeMap<>();
+            for(Year y : years) {
+                if(y != null) {
+                    sparse.put(y.getStartYear(), y);
+                }
+            }
+            years = new Year[0];
+            return;
+        }
+        int slack = (int) Math.max(4, (hi - lo) / 2);
+        lo = (year < first) ? Math.max(Integer.MIN_VALUE, lo - slack) : lo;
+        hi = (year < first) ? hi : Math.min(Integer.MAX_VALUE + 1L, hi + slack);
+        Year[] grown = new Year[(int) (hi - lo)];
+        System.arraycopy(years, 0, grown, (int) (first - lo), years.length);
+        years = grown;
+        first = (int) lo;
+    }
+
+    /**
+     * Returns the <code>Year</code> representing the academic year starting
+     * at <code>year</code>.
+     * @param year the year to search for
+     * @return the <code>Year</code> for that academic year, or
+     * <code>null</code> if this list does not contain it
+     */
+    public Year get(int year) {
+        if(sparse != null) {
+            return sparse.get(year);
+        }
+        int idx = year - first;
+        return (idx >= 0 && idx < years.length) ? years[idx] : null;
+    }
+
+    /**
+     * Returns the number of <code>Year</code>s in this list.
+     * @return the number of academic years in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the full-text index of the activities in this list.  The index
+     * is built the first time it is requested, and from then on is updated
+     * as activities are added to and removed from the list's years.
+     * @return the search index for this list
+     */
+    public SearchIndex getSearchIndex() {
+        if(search == null) {
+            search = new SearchIndex(this);
+        }
+        return search;
+    }
+
+    /**
+     * Returns the values entered so far for each field of an activity, for
+     * suggesting completions.  The suggestions are collected the first time
+     * they are requested, and from then on are updated as activities are
+     * added to the list's years.
+     * @return the entry suggestions for this list
+     */
+    public EntrySuggestions getSuggestions() {
+        if(suggestions == null) {
+            suggestions = new EntrySuggestions(this);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Returns every activity in this list with the given contact.  The
+     * reverse index from contacts to activities is built the first time this
+     * method is called, and from then on is updated as activities are added
+     * and removed.
+     * @param contact a contact
+     * @return a read-only view of the activities whose contact equals
+     * <code>contact</code>, in the order they were added
+     */
+    public Set<CLActivity> getActivities(Contact contact) {
+        if(byContact == null) {
+            byContact = new HashMap<>();
+            for(Year y : this) {
+                for(String d : y.getAllDescs()) {
+                    for(CLActivity c : y.getCLActivities(d)) {
+                        indexContact(c);
+                    }
+                }
+            }
+        }
+        Set<CLActivity> s = byContact.get(contact);
+        return (s == null) ? Collections.<CLActivity>emptySet() : Collections.unmodifiableSet(s);
+    }
+
+    private void indexContact(CLActivity c) {
+        Set<CLActivity> s = byContact.get(c.getContact());
+        if(s == null) {
+            s = new LinkedHashSet<>();
+            byContact.put(c.getContact(), s);
+        }
+        s.add(c);
+    }
+
+    /**
+     * Returns the registry holding the shared contacts and descriptions of
+     * the activities in this list.
+     * @return this list's contact registry
+     */
+    public ContactRegistry getContactRegistry() {
+        return registry;
+    }
+
+    /*
+     * Called by a Year in this list before an activity is added to it
+     */
+    void share(CLActivity c) {
+        registry.share(c);
+    }
+
+    /*
+     * Called by a Year in this list when an activity is added to it
+     */
+    void activityAdded(CLActivity c) {
+        if(search != null) {
+            search.add(c);
+        }
+        if(suggestions != null) {
+            suggestions.add(c);
+        }
+        if(byContact != null) {
+            indexContact(c);
+        }
+    }
+
+    /*
+     * Called by a Year in this list when an activity is removed from it
+     */
+    void activityRemoved(CLActivity c) {
+        if(search != null) {
+            search.remove(c);
+        }
+        if(byContact != null) {
+            Set<CLActivity> s = byContact.get(c.getContact());
+            if(s != null && s.remove(c) && s.isEmpty()) {
+                byContact.remove(c.getContact());
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this list containing the same
+     * <code>CLActivity</code>s in new <code>Year</code>s.  Changes made to
+     * this list afterwards are not reflected in the copy, so the copy can be
+     * saved on a background thread while the user keeps editing.
+     * @return a copy of this list
+     */
+    public YearList snapshot() {
+        YearList copy = new YearList(registry); //activities already share its copies
+        for(Year y : this) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity c : y.getCLActivities(d)) {
+                    copy.addData(c);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the names of all the <code>Year</code>s contained in this list,
+     * in the form of strings: "XXXX-XX".  The set is kept up to date as years
+     * are added, and cannot be modified by the caller.
+     * @return set of all year names contained in this list
+     */
+    public SortedSet<String> getYearsList() {
+        return yearNamesView;
+    }
+
+    /**
+     * Iterates over the <code>Year</code>s in this list in chronological
+     * order.
+     * @return an iterator over the years in this list
+     */
+    @Override
+    public Iterator<Year> iterator() {
+        if(sparse != null) {
+            return Collections.unmodifiableCollection(sparse.values()).iterator();
+        }
+        return new Iterator<Year>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while(i < years.length && years[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next < years.length;
+            }
+
+            @Override
+            public Year next() {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Year y = years[next];
+                next = advance(next + 1);
+                return y;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+}
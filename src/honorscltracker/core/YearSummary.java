@@ -0,0 +1,192 @@
+package honorscltracker.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * Running totals for the comp learning activities in one <code>Year</code>:
+ * the number of activities and the hours completed, overall and broken down
+ * by description, by month and by contact.  The totals are kept up to date by
+ * the <code>Year</code> as activities are added and removed, so reading them
+ * never requires a pass over the activities.  A summary cannot be changed
+ * except through its <code>Year</code>.
+ *
+ * Hours are totalled to the nearest millionth of an hour, in integer
+ * arithmetic, so that adding and removing activities never accumulates
+ * rounding error.
+ * @author Connor Pierce
+ */
+public final class YearSummary {
+    private static final double SCALE = 1e6; //units per hour
+    private long totalHours;
+    private int count;
+    private final HashMap<String, Tally> descs = new HashMap<>();
+    private final HashMap<String, Tally> contacts = new HashMap<>();
+    private final Tally[] months = new Tally[12];
+
+    YearSummary() {
+        for(int i = 0; i < months.length; i++) {
+            months[i] = new Tally();
+        }
+    }
+
+    /*
+     * Called by Year when an activity is added
+     */
+    void add(CLActivity c) {
+        long h = units(c);
+        count++;
+        totalHours += h;
+        tally(descs, c.getDesc()).add(h);
+        tally(contacts, contactName(c)).add(h);
+        months[Dates.getMonth(c.getEpochDay()) - 1].add(h);
+    }
+
+    /*
+     * Called by Year when an activity is removed
+     */
+    void remove(CLActivity c) {
+        long h = units(c);
+        count--;
+        totalHours -= h;
+        untally(descs, c.getDesc(), h);
+        untally(contacts, contactName(c), h);
+        months[Dates.getMonth(c.getEpochDay()) - 1].remove(h);
+    }
+
+    private static Tally tally(HashMap<String, Tally> map, String key) {
+        Tally t = map.get(key);
+        if(t == null) {
+            t = new Tally();
+            map.put(key, t);
+        }
+        return t;
+    }
+
+    private static void untally(HashMap<String, Tally> map, String key, long h) {
+        Tally t = map.get(key);
+        if(t != null && t.remove(h)) {
+            map.remove(key);
+        }
+    }
+
+    private static long units(CLActivity c) {
+        return Math.round(c.getHours() * SCALE);
+    }
+
+    private static String contactName(CLActivity c) {
+        Contact contact = c.getContact();
+        return (contact == null || contact.getName() == null) ? "" : contact.getName();
+    }
+
+    /**
+     * Returns the total number of hours completed during the year.
+     * @return the sum of the hours of every activity in the year
+     */
+    public double getTotalHours() {
+        return totalHours / SCALE;
+    }
+
+    /**
+     * Returns the number of comp learning activities in the year.
+     * @return the number of activities in the year
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of hours completed in activities with the given
+     * description.
+     * @param desc the short description of the activities
+     * @return the hours completed under <code>desc</code>, or 0 if there are
+     * no such activities
+     */
+    public double getDescHours(String desc) {
+        Tally t = descs.get(desc);
+        return (t == null) ? 0 : t.hours / SCALE;
+    }
+
+    /**
+     * Returns the number of activities with the given description.
+     * @param desc the short description of the activities
+     * @return the number of activities with description <code>desc</code>
+     */
+    public int getDescCount(String desc) {
+        Tally t = descs.get(desc);
+        return (t == null) ? 0 : t.count;
+    }
+
+    /**
+     * Returns the number of hours completed in the given month.
+     * @param month the month, as a <code>Calendar</code> month constant
+     * (<code>Calendar.JANUARY</code> to <code>Calendar.DECEMBER</code>)
+     * @return the hours of all activities dated in that month
+     */
+    public double getMonthHours(int month) {
+        return months[month].hours / SCALE;
+    }
+
+    /**
+     * Returns the number of activities dated in the given month.
+     * @param month the month, as a <code>Calendar</code> month constant
+     * @return the number of activities dated in that month
+     */
+    public int getMonthCount(int month) {
+        return months[month].count;
+    }
+
+    /**
+     * Returns the number of hours completed with the contact of the given
+     * name.
+     * @param name the contact's name
+     * @return the hours of all activities whose contact has that name, or 0
+     */
+    public double getContactHours(String name) {
+        Tally t = contacts.get(name);
+        return (t == null) ? 0 : t.hours / SCALE;
+    }
+
+    /**
+     * Returns the number of activities with the contact of the given name.
+     * @param name the contact's name
+     * @return the number of activities whose contact has that name
+     */
+    public int getContactCount(String name) {
+        Tally t = contacts.get(name);
+        return (t == null) ? 0 : t.count;
+    }
+
+    /**
+     * Returns the names of every contact in the year.  The set is a read-only
+     * view that reflects later changes to the year.
+     * @return the names of the contacts of the year's activities
+     */
+    public Set<String> getContactNames() {
+        return Collections.unmodifiableSet(contacts.keySet());
+    }
+
+    /*
+     * The hours and number of activities under one key
+     */
+    private static class Tally {
+        private long hours;
+        private int count;
+
+        void add(long h) {
+            hours += h;
+            count++;
+        }
+
+        /*
+         * returns true if no activities are left
+         */
+        boolean remove(long h) {
+            count--;
+            hours -= h;
+            return count == 0;
+        }
+    }
+
+}
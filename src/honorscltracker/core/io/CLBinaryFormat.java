@@ -0,0 +1,70 @@
+package honorscltracker.core.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Constants and helpers shared by {@link CLBinaryWriter} and
+ * {@link CLBinaryReader}, which read and write the binary snapshot format
+ * (<code>.clb</code>).  All values are big-endian.
+ * <pre>
+ * header   int magic ('HCLB'), int version, int stringCount, int recordCount
+ * strings  stringCount times: int byteLength, UTF-8 bytes
+ * records  recordCount fixed-width records of RECORD_SIZE bytes:
+ *          int desc, int epochDay, int startYr, int contactName,
+ *          int contactEmail, int contactPhone, double hours,
+ *          long detailsOffset, int detailsLength
+ * details  UTF-8 bytes of every activity's details, back to back
+ * </pre>
+ * Descriptions and contact fields are indices into the string table, dates
+ * are days since 1/1/1970 and <code>detailsOffset</code> is relative to the
+ * start of the details section.  Because records are fixed-width, any record
+ * can be located without reading the ones before it.
+ * @author Connor Pierce
+ */
+public final class CLBinaryFormat {
+    /**
+     * First four bytes of every binary snapshot: 'HCLB'.
+     */
+    public static final int MAGIC = 0x48434C42;
+    /**
+     * Version of the format written by <code>CLBinaryWriter</code>.
+     */
+    public static final int VERSION = 1;
+    /**
+     * Size in bytes of the header.
+     */
+    public static final int HEADER_SIZE = 16;
+    /**
+     * Size in bytes of a single activity record.
+     */
+    public static final int RECORD_SIZE = 44;
+
+    private CLBinaryFormat() {
+    }
+
+    /**
+     * Determines whether the given file is a binary snapshot, by checking for
+     * the magic number at its start.
+     * @param f the file to examine
+     * @return <code>true</code> if <code>f</code> is a binary snapshot,
+     * <code>false</code> if it is a text .cl file (or empty)
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isBinary(File f) throws IOException {
+        try(InputStream in = new FileInputStream(f)) {
+            int magic = 0;
+            for(int i = 0; i < 4; i++) {
+                int b = in.read();
+                if(b < 0) {
+                    return false;
+                }
+                magic = (magic << 8) | b;
+            }
+            return magic == MAGIC;
+        }
+    }
+
+}
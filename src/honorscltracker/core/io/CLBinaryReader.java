@@ -0,0 +1,155 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+
+/**
+ * Reads comp learning activities from a binary snapshot.  See
+ * {@link CLBinaryFormat} for a description of the layout.  The file is
+ * memory-mapped, and activities are decoded one at a time by
+ * {@link #next()}, in the same way as {@link CLReader}.
+ * @author Connor Pierce
+ */
+public class CLBinaryReader implements Closeable {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final RandomAccessFile raf;
+    protected final ByteBuffer buf;
+    protected final String[] strings;
+    protected final int count;
+    protected final int recordsStart;
+    protected final long detailsStart;
+    private byte[] scratch = new byte[256];
+    protected int index; //index of the next record returned by next()
+
+    /**
+     * Opens the given binary snapshot and reads its string table.
+     * @param f the snapshot to read
+     * @throws ParseException if the file is not a binary snapshot, is of an
+     * unsupported version or is truncated
+     * @throws IOException if the file cannot be read
+     */
+    public CLBinaryReader(File f) throws ParseException, IOException {
+        raf = new RandomAccessFile(f, "r");
+        try {
+            FileChannel ch = raf.getChannel();
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if(buf.remaining() < CLBinaryFormat.HEADER_SIZE
+                    || buf.getInt() != CLBinaryFormat.MAGIC) {
+                throw new ParseException("Not a comp learning snapshot", 0);
+            }
+            int version = buf.getInt();
+            if(version != CLBinaryFormat.VERSION) {
+                throw new ParseException("Unsupported snapshot version "+version, 0);
+            }
+            strings = new String[buf.getInt()];
+            count = buf.getInt();
+            for(int i = 0; i < strings.length; i++) {
+                int length = buf.getInt();
+                if(length < 0) {
+                    throw new ParseException("Corrupt snapshot", 0);
+                }
+                strings[i] = decode(buf.position(), length);
+                buf.position(buf.position() + length);
+            }
+            recordsStart = buf.position();
+            detailsStart = recordsStart + (long) count * CLBinaryFormat.RECORD_SIZE;
+            if(detailsStart > buf.limit()) {
+                throw new ParseException("Truncated snapshot", 0);
+            }
+        } catch(BufferUnderflowException | IllegalArgumentException
+                | IndexOutOfBoundsException | NegativeArraySizeException ex) {
+            raf.close();
+            throw new ParseException("Corrupt snapshot", 0);
+        } catch(ParseException | IOException ex) {
+            raf.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the number of activities in the snapshot.
+     * @return the number of activities in the snapshot
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decodes the next comp learning activity in the snapshot.
+     * @return the next activity, or <code>null</code> if every activity has
+     * been read
+     * @throws ParseException if the record is corrupt
+     */
+    public CLActivity next() throws ParseException {
+        if(index >= count) {
+            return null;
+        }
+        CLActivity a = new CLActivity();
+        int p = fill(a, index);
+        long offset = buf.getLong(p + 32);
+        int length = buf.getInt(p + 40);
+        a.setDetails(details(offset, length, index));
+        index++;
+        return a;
+    }
+
+    /*
+     * Decodes every field of the index-th record except the details into the
+     * given activity, returning the position of the record
+     */
+    protected int fill(CLActivity a, int index) throws ParseException {
+        int p = recordsStart + index * CLBinaryFormat.RECORD_SIZE;
+        try {
+            a.setDesc(strings[buf.getInt(p)]);
+            a.setEpochDay(buf.getInt(p + 4));
+            a.setStartYr(buf.getInt(p + 8));
+            a.setContact(new Contact(strings[buf.getInt(p + 12)],
+                    strings[buf.getInt(p + 16)], strings[buf.getInt(p + 20)]));
+            a.setHours(buf.getDouble(p + 24));
+        } catch(IndexOutOfBoundsException ex) {
+            throw new ParseException("Corrupt snapshot record "+index, 0);
+        }
+        return p;
+    }
+
+    /*
+     * Decodes the details of the index-th record
+     */
+    protected String details(long offset, int length, int index) throws ParseException {
+        long start = detailsStart + offset;
+        if(offset < 0 || length < 0 || start + length > buf.limit()) {
+            throw new ParseException("Corrupt snapshot record "+index, 0);
+        }
+        return decode((int) start, length);
+    }
+
+    /*
+     * Decodes length bytes of UTF-8 at the given absolute position, without
+     * moving the buffer's position
+     */
+    private String decode(int position, int length) {
+        if(length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        ByteBuffer b = buf.duplicate();
+        b.position(position);
+        b.get(scratch, 0, length);
+        return new String(scratch, 0, length, UTF8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        raf.close();
+    }
+
+}
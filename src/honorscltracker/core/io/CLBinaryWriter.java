@@ -0,0 +1,130 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.Year;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Writes comp learning activities as a binary snapshot.  See
+ * {@link CLBinaryFormat} for a description of the layout.
+ * @author Connor Pierce
+ */
+public class CLBinaryWriter {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private final DataOutputStream out;
+
+    /**
+     * Creates a writer that writes a binary snapshot to the given stream.  The
+     * stream is buffered internally.
+     * @param out the stream to write the snapshot to
+     */
+    public CLBinaryWriter(OutputStream out) {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 1<<16));
+    }
+
+    /**
+     * Writes a snapshot containing every comp learning activity in the given
+     * years.  The years are traversed three times (string table, records,
+     * details), so they must not change while this method runs.
+     * @param years the years to write
+     * @throws IOException if the underlying stream cannot be written
+     */
+    public void write(Iterable<Year> years) throws IOException {
+        HashMap<String, Integer> ids = new HashMap<>();
+        ArrayList<String> strings = new ArrayList<>();
+        int count = 0;
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity a : y.getCLActivities(d)) {
+                    Contact c = a.getContact();
+                    id(d, ids, strings);
+                    id(c.getName(), ids, strings);
+                    id(c.getEmail(), ids, strings);
+                    id(c.getPhone(), ids, strings);
+                    count++;
+                }
+            }
+        }
+
+        out.writeInt(CLBinaryFormat.MAGIC);
+        out.writeInt(CLBinaryFormat.VERSION);
+        out.writeInt(strings.size());
+        out.writeInt(count);
+        for(String s : strings) {
+            byte[] b = s.getBytes(UTF8);
+            out.writeInt(b.length);
+            out.write(b);
+        }
+
+        long offset = 0;
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity a : y.getCLActivities(d)) {
+                    Contact c = a.getContact();
+                    int length = utf8Length(a.getDetails());
+                    out.writeInt(ids.get(d));
+                    out.writeInt(a.getEpochDay());
+                    out.writeInt(a.getStartYr());
+                    out.writeInt(ids.get(c.getName()));
+                    out.writeInt(ids.get(c.getEmail()));
+                    out.writeInt(ids.get(c.getPhone()));
+                    out.writeDouble(a.getHours());
+                    out.writeLong(offset);
+                    out.writeInt(length);
+                    offset += length;
+                }
+            }
+        }
+
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity a : y.getCLActivities(d)) {
+                    out.write(a.getDetails().getBytes(UTF8));
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private static void id(String s, HashMap<String, Integer> ids, ArrayList<String> strings) {
+        if(!ids.containsKey(s)) {
+            ids.put(s, strings.size());
+            strings.add(s);
+        }
+    }
+
+    /*
+     * Number of bytes String.getBytes(UTF-8) produces for the given string,
+     * computed without encoding it.  Unpaired surrogates are replaced with a
+     * single byte by the encoder.
+     */
+    private static int utf8Length(String s) {
+        int length = 0;
+        for(int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if(c < 0x80) {
+                length += 1;
+            } else if(c < 0x800) {
+                length += 2;
+            } else if(Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if(Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+}
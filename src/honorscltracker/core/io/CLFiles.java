@@ -0,0 +1,247 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+
+/**
+ * Static helpers for saving and loading .cl files.  Files are either text
+ * (read by {@link CLReader}) or binary snapshots (read by
+ * {@link CLBinaryReader}); the format of an existing file is detected from
+ * its contents, and files are saved as snapshots if their name ends in
+ * {@link #SNAPSHOT_EXTENSION}.
+ *
+ * Saving is crash-safe: the data is written to a temporary file next to the
+ * target, forced to disk, and then moved over the target in a single atomic
+ * rename.  A crash at any point leaves either the old or the new version of
+ * the file intact, never a truncated one.  The previous version is kept as
+ * <code>&lt;file&gt;.bak</code>.
+ * @author Connor Pierce
+ */
+public final class CLFiles {
+    /**
+     * File name extension of binary snapshots.
+     */
+    public static final String SNAPSHOT_EXTENSION = ".clb";
+    private static final Charset CHARSET = Charset.defaultCharset();
+    //text files larger than this are parsed on several cores
+    private static final long PARALLEL_THRESHOLD = 1<<20;
+    //number of activities between progress reports
+    static final int REPORT_INTERVAL = 1024;
+
+    private CLFiles() {
+    }
+
+    /**
+     * Returns the backup file kept for the given .cl file.
+     * @param f a .cl file
+     * @return the file holding the previously saved version of <code>f</code>
+     */
+    public static File backupFile(File f) {
+        return new File(f.getPath() + ".bak");
+    }
+
+    /**
+     * Atomically replaces the contents of the given file with the given years.
+     * @param years the years to save
+     * @param f the file to save to
+     * @throws IOException if the data cannot be written; the existing file is
+     * left untouched in that case
+     */
+    public static void save(Iterable<Year> years, File f) throws IOException {
+        save(years, f, null);
+    }
+
+    /**
+     * Atomically replaces the contents of the given file with the given years,
+     * reporting the number of activities written as it goes.
+     * @param years the years to save
+     * @param f the file to save to
+     * @param progress receives progress reports, or <code>null</code>
+     * @throws IOException if the data cannot be written; the existing file is
+     * left untouched in that case
+     */
+    public static void save(Iterable<Year> years, File f, ProgressHandler progress)
+            throws IOException {
+        Path target = f.getAbsoluteFile().toPath();
+        //a plain FileOutputStream (rather than Files.createTempFile) gives the
+        //new file the same default permissions as any other saved file
+        Path temp = target.resolveSibling("." + f.getName() + ".tmp");
+        try {
+            try(FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                long total = 0;
+                for(Year y : years) {
+                    total += y.getSize();
+                }
+                if(f.getName().endsWith(SNAPSHOT_EXTENSION)) {
+                    new CLBinaryWriter(out).write(years);
+                } else {
+                    CLWriter w = new CLWriter(new OutputStreamWriter(out, CHARSET));
+                    long done = 0;
+                    for(Year y : years) {
+                        for(String d : y.getAllDescs()) {
+                            for(CLActivity a : y.getCLActivities(d)) {
+                                w.write(a);
+                                if(progress != null && ++done % REPORT_INTERVAL == 0) {
+                                    progress.progress(done, total);
+                                }
+                            }
+                        }
+                    }
+                    w.flush();
+                }
+                if(progress != null) {
+                    progress.progress(total, total);
+                }
+                out.getChannel().force(true);
+            }
+            //Windows cannot replace a snapshot while it is mapped
+            MappedActivityStore.release(f);
+            if(Files.exists(target)) {
+                backup(target, backupFile(f).getAbsoluteFile().toPath());
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch(AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads every comp learning activity in the given file into the given
+     * years, detecting whether the file is text or a binary snapshot.
+     * Snapshots are memory-mapped through {@link MappedActivityStore}, so the
+     * details of their activities are only read from disk when viewed.  Large
+     * text files are parsed in parallel by {@link ParallelCLLoader}.
+     * @param f the file to load
+     * @param years the years to add the activities to
+     * @throws ParseException if the file is malformed
+     * @throws IOException if the file cannot be read
+     */
+    public static void load(File f, YearList years) throws ParseException, IOException {
+        load(f, years, null);
+    }
+
+    /**
+     * Loads every comp learning activity in the given file into the given
+     * years, reporting progress as it goes.  Loading stops with an
+     * <code>InterruptedIOException</code> if the calling thread is
+     * interrupted, in which case <code>years</code> may hold some of the
+     * file's activities.
+     * @param f the file to load
+     * @param years the years to add the activities to
+     * @param progress receives progress reports, or <code>null</code>
+     * @throws ParseException if the file is malformed
+     * @throws IOException if the file cannot be read, or loading was
+     * interrupted
+     * @see #load(File, YearList)
+     */
+    public static void load(File f, YearList years, ProgressHandler progress)
+            throws ParseException, IOException {
+        CLActivity a;
+        int n = 0;
+        if(CLBinaryFormat.isBinary(f)) {
+            try(MappedActivityStore r = new MappedActivityStore(f)) {
+                while((a = r.next()) != null) {
+                    years.addData(a);
+                    if(++n % REPORT_INTERVAL == 0) {
+                        checkInterrupted();
+                        if(progress != null) {
+                            progress.progress(n, r.size());
+                        }
+                    }
+                }
+            }
+        } else if(f.length() > PARALLEL_THRESHOLD) {
+            ParallelCLLoader.load(f, CHARSET, years, progress);
+        } else {
+            CountingInputStream in = new CountingInputStream(new FileInputStream(f));
+            try(CLReader r = new CLReader(new InputStreamReader(in, CHARSET))) {
+                while((a = r.next()) != null) {
+                    years.addData(a);
+                    if(++n % REPORT_INTERVAL == 0) {
+                        checkInterrupted();
+                        if(progress != null) {
+                            progress.progress(Math.min(in.count, f.length()), f.length());
+                        }
+                    }
+                }
+            }
+        }
+        if(progress != null) {
+            progress.progress(1, 1);
+        }
+    }
+
+    /*
+     * Lets long-running loads be cancelled by interrupting their thread
+     */
+    static void checkInterrupted() throws InterruptedIOException {
+        if(Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Loading cancelled");
+        }
+    }
+
+    /*
+     * Keeps the current version of the file as the backup.  A hard link costs
+     * nothing regardless of file size; where links are unsupported the file
+     * is copied instead.
+     */
+    private static void backup(Path target, Path bak) throws IOException {
+        Files.deleteIfExists(bak);
+        try {
+            Files.createLink(bak, target);
+        } catch(IOException | UnsupportedOperationException ex) {
+            Files.copy(target, bak, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /*
+     * Counts the bytes read from a file, to report loading progress
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if(b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if(n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+}
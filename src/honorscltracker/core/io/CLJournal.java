@@ -0,0 +1,231 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.UserAction;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.text.ParseException;
+
+/**
+ * Append-only log of the changes made to a .cl file since it was last saved
+ * in full.  Each addition, deletion or edit is appended to
+ * <code>&lt;file&gt;.journal</code> as a small record, so saving a change
+ * costs the same no matter how many activities the file contains.  Once the
+ * journal grows past {@link #COMPACT_THRESHOLD} bytes, the caller should save
+ * the whole file and {@link #delete()} the journal.
+ *
+ * The journal begins with a header recording the size and modification time
+ * of the .cl file it applies to.  A journal whose header no longer matches
+ * the .cl file (because the file was saved in full after the journal was
+ * written) is stale and is ignored, so a crash between saving the .cl file
+ * and deleting the journal can never apply the same changes twice.
+ *
+ * Records use the .cl activity format, each preceded by a marker line:
+ * <pre>
+ * ~Added~     followed by the new activity
+ * ~Deleted~   followed by the deleted activity
+ * ~Edited~    followed by the old and then the new version of the activity
+ * </pre>
+ * @author Connor Pierce
+ */
+public class CLJournal {
+    /**
+     * Journal size, in bytes, beyond which the journal should be compacted
+     * into the .cl file.
+     */
+    public static final long COMPACT_THRESHOLD = 1<<20;
+    private static final String HEADER = "~Journal~";
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    private final File base;
+    private final File journal;
+
+    /**
+     * Creates a journal for the given .cl file.  No file is created until the
+     * first change is appended.
+     * @param base the .cl file whose changes are recorded
+     */
+    public CLJournal(File base) {
+        this.base = base;
+        this.journal = journalFile(base);
+    }
+
+    /**
+     * Returns the journal file kept for the given .cl file.
+     * @param f a .cl file
+     * @return the journal file for <code>f</code>
+     */
+    public static File journalFile(File f) {
+        return new File(f.getPath() + ".journal");
+    }
+
+    /**
+     * Appends the given change to the journal and forces it to disk.
+     * @param action the change made by the user
+     * @throws IOException if the journal cannot be written
+     */
+    public void append(UserAction action) throws IOException {
+        boolean fresh = !journal.exists() || journal.length() == 0;
+        try(FileOutputStream out = new FileOutputStream(journal, true)) {
+            CLWriter w = new CLWriter(new OutputStreamWriter(out, CHARSET));
+            if(fresh) {
+                w.writeMarker(header());
+            }
+            switch(action.getType()) {
+                case UserAction.ADDED:
+                    w.writeMarker("~Added~");
+                    w.write(action.getCurrent());
+                    break;
+                case UserAction.DELETED:
+                    w.writeMarker("~Deleted~");
+                    w.write(action.getPrevious());
+                    break;
+                case UserAction.EDITED:
+                    w.writeMarker("~Edited~");
+                    w.write(action.getPrevious());
+                    w.write(action.getCurrent());
+                    break;
+            }
+            w.flush();
+            out.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Determines whether the journal has grown large enough that it should be
+     * compacted into the .cl file.
+     * @return <code>true</code> if the journal is larger than
+     * {@link #COMPACT_THRESHOLD}
+     */
+    public boolean needsCompaction() {
+        return journal.length() > COMPACT_THRESHOLD;
+    }
+
+    /**
+     * Deletes the journal.  Should be called after the .cl file has been saved
+     * in full.
+     * @throws IOException if the journal exists but cannot be deleted
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(journal.toPath());
+    }
+
+    /**
+     * Applies the changes recorded in the journal to the given years, which
+     * should have just been loaded from the .cl file.  A stale journal is
+     * deleted without being applied.
+     * @param years the years loaded from the .cl file
+     * @return <code>true</code> if any changes were applied
+     * @throws ParseException if the journal is malformed
+     * @throws IOException if the journal cannot be read
+     */
+    public boolean replay(YearList years) throws ParseException, IOException {
+        return replay(years, true);
+    }
+
+    /**
+     * Applies the changes recorded in the journal to the given years, which
+     * should have just been loaded from the .cl file.  A stale journal is
+     * not applied, and is deleted only if requested.
+     * @param years the years loaded from the .cl file
+     * @param deleteStale whether to delete the journal if it is stale;
+     * <code>false</code> leaves the journal untouched
+     * @return <code>true</code> if any changes were applied
+     * @throws ParseException if the journal is malformed
+     * @throws IOException if the journal cannot be read
+     */
+    public boolean replay(YearList years, boolean deleteStale)
+            throws ParseException, IOException {
+        if(!journal.exists()) {
+            return false;
+        }
+        boolean stale, applied = false;
+        try(CLReader r = new CLReader(new FileReader(journal))) {
+            String marker = r.readMarker();
+            if(marker == null) {
+                return false;
+            }
+            stale = !marker.equals(header());
+            while(!stale && (marker = r.readMarker()) != null) {
+                switch(marker) {
+                    case "~Added~":
+                        years.addData(read(r));
+                        break;
+                    case "~Deleted~":
+                        remove(years, read(r));
+                        break;
+                    case "~Edited~":
+                        remove(years, read(r));
+                        years.addData(read(r));
+                        break;
+                    default:
+                        throw new ParseException("Invalid journal entry at line "
+                                +r.getLineNumber(), 0);
+                }
+                applied = true;
+            }
+        }
+        //the journal must be closed before it can be deleted on Windows
+        if(stale && deleteStale) {
+            delete();
+        }
+        return applied;
+    }
+
+    /*
+     * Header identifying the version of the .cl file that this journal applies
+     * to
+     */
+    private String header() {
+        return HEADER + " " + base.length() + " " + base.lastModified();
+    }
+
+    private static CLActivity read(CLReader r) throws ParseException, IOException {
+        CLActivity a = r.next();
+        if(a == null) {
+            throw new ParseException("Incomplete CL activity at line "
+                    +r.getLineNumber(), 0);
+        }
+        return a;
+    }
+
+    /*
+     * Removes the loaded activity matching the journalled one.  Details are
+     * compared last, since line endings inside them are not preserved exactly
+     * by the file format; an exact match is preferred if there is one.
+     */
+    private static void remove(YearList years, CLActivity a) {
+        Year y = years.get(a.getStartYr());
+        if(y == null) {
+            return;
+        }
+        CLActivity match = null;
+        for(CLActivity c : y.getCLActivities(a.getDesc())) {
+            if(sameFields(c, a)) {
+                if(c.getDetails().equals(a.getDetails())) {
+                    match = c;
+                    break;
+                } else if(match == null) {
+                    match = c;
+                }
+            }
+        }
+        if(match != null) {
+            y.removeCLActivity(match);
+        }
+    }
+
+    private static boolean sameFields(CLActivity x, CLActivity y) {
+        return x.getEpochDay() == y.getEpochDay()
+                && x.getHours() == y.getHours()
+                && x.getContact().equals(y.getContact());
+    }
+
+}
@@ -0,0 +1,196 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.DateCodec;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+
+/**
+ * Reads comp learning activities from a .cl file, one record at a time.
+ * Records are delimited by <code>~Activity~</code> and <code>~/Activity~</code>
+ * lines, and contain one <code>key=value</code> line for each field plus a
+ * <code>~~Details~~</code> block holding the (HTML) detailed description.
+ *
+ * Activities are streamed: each call to {@link #next()} parses exactly one
+ * record, so a caller never has to hold more than one partially parsed
+ * activity in memory.  If the file is malformed, a <code>ParseException</code>
+ * is thrown whose message includes the line number of the offending line.
+ * @author Connor Pierce
+ */
+public class CLReader implements Closeable {
+    //bit flags recording which fields of the current record have been seen
+    private static final int DESC = 1, DATE = 1<<1, CONTACT_NAME = 1<<2,
+            CONTACT_EMAIL = 1<<3, CONTACT_PHONE = 1<<4, HOURS = 1<<5,
+            YEAR = 1<<6, DETAILS = 1<<7;
+    private static final int COMPLETE = (1<<8) - 1;
+
+    private final BufferedReader in;
+    private final StringBuilder details = new StringBuilder(256);
+    private String contactName, contactEmail, contactPhone; //of the current record
+    private int lineNum;
+
+    /**
+     * Creates a reader that parses comp learning activities from the given
+     * character stream.  The stream is buffered internally.
+     * @param in the stream containing the .cl file contents
+     */
+    public CLReader(Reader in) {
+        this(in, 0);
+    }
+
+    /**
+     * Creates a reader that parses comp learning activities from the given
+     * character stream, where the first line of the stream is line
+     * <code>firstLine + 1</code> of the file.  Used when a file is parsed in
+     * several pieces, so that line numbers reported in exceptions still refer
+     * to the whole file.
+     * @param in the stream containing the .cl file contents
+     * @param firstLine the number of lines of the file preceding the stream
+     */
+    public CLReader(Reader in, int firstLine) {
+        this.in = (in instanceof BufferedReader) ? (BufferedReader) in
+                : new BufferedReader(in, 1<<16);
+        this.lineNum = firstLine;
+    }
+
+    /**
+     * Returns the number of the last line read from the file.
+     * @return the current line number
+     */
+    public int getLineNumber() {
+        return lineNum;
+    }
+
+    /**
+     * Parses the next comp learning activity in the file.
+     * @return the next activity, or <code>null</code> if the end of the file
+     * has been reached
+     * @throws ParseException if the file contains invalid syntax or an
+     * incomplete activity
+     * @throws IOException if the underlying stream cannot be read
+     */
+    public CLActivity next() throws ParseException, IOException {
+        CLActivity a = null;
+        boolean parsingDetails = false, firstDetailLine = false;
+        int complete = 0;
+        String s;
+        while((s = in.readLine()) != null) {
+            lineNum ++;
+            if(a == null) {
+                if(s.equals("~Activity~")) {
+                    a = new CLActivity();
+                } else if(!s.isEmpty()) {
+                    throw new ParseException("Invalid syntax at line "+lineNum, 0);
+                }
+            } else if(parsingDetails) {
+                if(s.equals("~~/Details~~")) {
+                    parsingDetails = false;
+                    a.setDetails(details.toString());
+                    complete |= DETAILS;
+                } else {
+                    if(!firstDetailLine) {
+                        details.append('\n');
+                    }
+                    firstDetailLine = false;
+                    details.append(s);
+                }
+            } else if(s.equals("~~Details~~")) {
+                parsingDetails = true;
+                firstDetailLine = true;
+                details.setLength(0);
+            } else if(s.equals("~/Activity~")) {
+                if(complete != COMPLETE) {
+                    throw new ParseException("Incomplete CL activity at line "+lineNum, 0);
+                }
+                a.setContact(new Contact(contactName, contactEmail, contactPhone));
+                return a;
+            } else if(!s.isEmpty()) {
+                complete |= parseField(s, a);
+            }
+        }
+        if(a != null) {
+            throw new ParseException("Incomplete CL activity at line "+lineNum, 0);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next non-blank line, which must not be part of an activity
+     * record.  Used by formats that wrap .cl records in their own markers,
+     * such as the journal written by {@link CLJournal}.
+     * @return the next non-blank line, or <code>null</code> if the end of the
+     * file has been reached
+     * @throws IOException if the underlying stream cannot be read
+     */
+    public String readMarker() throws IOException {
+        String s;
+        while((s = in.readLine()) != null) {
+            lineNum ++;
+            if(!s.isEmpty()) {
+                return s;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Parses a single key=value line into the activity or the contact fields.  The key is
+     * identified by its length and then confirmed with a single startsWith,
+     * so every line is dispatched without creating a substring for the key.
+     * Returns the flag for the field that was set.
+     */
+    private int parseField(String s, CLActivity a) throws ParseException {
+        int eq = s.indexOf('=');
+        String value = (eq < 0) ? null : s.substring(eq+1);
+        try {
+            switch(eq) {
+                case 4:
+                    if(s.startsWith("desc")) {
+                        a.setDesc(value);
+                        return DESC;
+                    } else if(s.startsWith("date")) {
+                        a.setEpochDay(DateCodec.parse(value));
+                        return DATE;
+                    } else if(s.startsWith("year")) {
+                        a.setStartYr(Integer.parseInt(value));
+                        return YEAR;
+                    }
+                    break;
+                case 5:
+                    if(s.startsWith("hours")) {
+                        a.setHours(Double.parseDouble(value));
+                        return HOURS;
+                    }
+                    break;
+                case 11:
+                    if(s.startsWith("contactname")) {
+                        contactName = value;
+                        return CONTACT_NAME;
+                    }
+                    break;
+                case 12:
+                    if(s.startsWith("contactemail")) {
+                        contactEmail = value;
+                        return CONTACT_EMAIL;
+                    } else if(s.startsWith("contactphone")) {
+                        contactPhone = value;
+                        return CONTACT_PHONE;
+                    }
+                    break;
+            }
+        } catch(NumberFormatException | ParseException ex) {
+            throw new ParseException("Invalid value at line "+lineNum, 0);
+        }
+        throw new ParseException("Invalid syntax at line "+lineNum, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,104 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.DateCodec;
+import honorscltracker.core.Year;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes comp learning activities in the .cl file format read by
+ * {@link CLReader}.  Each record is assembled in a single reusable buffer and
+ * handed to a large <code>BufferedWriter</code>, so saving a file creates
+ * almost no garbage regardless of its size.
+ *
+ * Unlike <code>PrintWriter</code>, this class does not swallow errors: any
+ * failure of the underlying stream is reported as an <code>IOException</code>.
+ * @author Connor Pierce
+ */
+public class CLWriter implements Closeable, Flushable {
+    private final Writer out;
+    private final StringBuilder record = new StringBuilder(1024);
+    private char[] chars = new char[1024]; //record copied out of the builder
+
+    /**
+     * Creates a writer that writes comp learning activities to the given
+     * stream.  The stream is buffered internally.
+     * @param out the stream to write the .cl file contents to
+     */
+    public CLWriter(Writer out) {
+        this.out = (out instanceof BufferedWriter) ? out
+                : new BufferedWriter(out, 1<<16);
+    }
+
+    /**
+     * Writes every comp learning activity contained in the given years,
+     * grouped by year and then by description.
+     * @param years the years to write
+     * @throws IOException if the underlying stream cannot be written
+     */
+    public void write(Iterable<Year> years) throws IOException {
+        for(Year y : years) {
+            for(String d : y.getAllDescs()) {
+                for(CLActivity a : y.getCLActivities(d)) {
+                    write(a);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a single comp learning activity record, followed by a blank line.
+     * @param a the activity to write
+     * @throws IOException if the underlying stream cannot be written
+     */
+    public void write(CLActivity a) throws IOException {
+        StringBuilder b = record;
+        b.setLength(0);
+        b.append("~Activity~\ndesc=").append(a.getDesc());
+        b.append("\ndate=");
+        DateCodec.format(a.getEpochDay(), b);
+        b.append("\nyear=").append(a.getStartYr());
+        Contact contact = a.getContact();
+        b.append("\ncontactname=").append(contact.getName());
+        b.append("\ncontactemail=").append(contact.getEmail());
+        b.append("\ncontactphone=").append(contact.getPhone());
+        b.append("\nhours=").append(a.getHours());
+        b.append("\n~~Details~~\n").append(a.getDetails());
+        b.append("\n~~/Details~~\n~/Activity~\n\n");
+        //copied into a reused array, since appending the builder itself
+        //would copy it into a new String first
+        int len = b.length();
+        if(chars.length < len) {
+            chars = new char[Math.max(len, chars.length * 2)];
+        }
+        b.getChars(0, len, chars, 0);
+        out.write(chars, 0, len);
+    }
+
+    /**
+     * Writes a single line outside of any activity record.  Used by formats
+     * that wrap .cl records in their own markers, such as the journal written
+     * by {@link CLJournal}.
+     * @param marker the line to write, without a line terminator
+     * @throws IOException if the underlying stream cannot be written
+     */
+    public void writeMarker(String marker) throws IOException {
+        out.append(marker).append('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+}
@@ -0,0 +1,209 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.WeakHashMap;
+
+/**
+ * A binary snapshot whose activities stay in the memory-mapped file until
+ * they are needed.  Activities returned by {@link #next()} hold only the
+ * small fixed-width fields on the heap (with descriptions and contact fields
+ * shared through the snapshot's string table); their details, which are by
+ * far the largest part of a file, are decoded from the mapping each time
+ * <code>getDetails()</code> is called and are never retained.  Memory use
+ * therefore grows with the number of activities, not with the size of their
+ * details.
+ *
+ * The mapping remains valid after {@link #close()} and stays alive for as
+ * long as any of its activities are reachable.  Replacing the file on disk
+ * (for example by an atomic save) does not affect it on POSIX systems, but
+ * Windows refuses to replace a file while it is mapped; there,
+ * {@link CLFiles} calls {@link #release(File)} before replacing a snapshot,
+ * which moves the details of every store mapping it onto the heap and unmaps
+ * the file.
+ * @author Connor Pierce
+ */
+public class MappedActivityStore extends CLBinaryReader {
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final boolean REPLACEABLE_WHILE_MAPPED =
+            !System.getProperty("os.name", "").startsWith("Windows");
+    //every store whose activities may still be in use, and its file
+    private static final WeakHashMap<MappedActivityStore, File> stores = new WeakHashMap<>();
+    private final File file;
+    //every record's details, once the file has been unmapped
+    private volatile String[] released;
+
+    /**
+     * Maps the given binary snapshot and reads its string table.
+     * @param f the snapshot to map
+     * @throws ParseException if the file is not a binary snapshot, is of an
+     * unsupported version or is truncated
+     * @throws IOException if the file cannot be read
+     */
+    public MappedActivityStore(File f) throws ParseException, IOException {
+        super(f);
+        file = f;
+        synchronized(stores) {
+            stores.put(this, f);
+        }
+    }
+
+    /**
+     * Prepares the given file to be replaced.  Where the platform cannot
+     * replace a mapped file, every store mapping it reads the details of all
+     * its records onto the heap and unmaps the file; its activities keep
+     * working as before.  Elsewhere this does nothing, and the stores keep
+     * the old file's contents mapped.
+     * @param f a file that is about to be replaced
+     */
+    static void release(File f) {
+        if(REPLACEABLE_WHILE_MAPPED || !f.exists()) {
+            return;
+        }
+        List<MappedActivityStore> mapping = new ArrayList<>();
+        synchronized(stores) {
+            for(MappedActivityStore s : stores.keySet()) {
+                try {
+                    if(s.file.exists() && Files.isSameFile(s.file.toPath(), f.toPath())) {
+                        mapping.add(s);
+                    }
+                } catch(IOException ex) {
+                    //a file that cannot be compared is not the one being replaced
+                }
+            }
+            stores.keySet().removeAll(mapping);
+        }
+        for(MappedActivityStore s : mapping) {
+            s.release();
+        }
+    }
+
+    /*
+     * Reads every record's details onto the heap, then unmaps the file.  No
+     * records can be read once it has been unmapped.
+     */
+    synchronized void release() {
+        if(released != null) {
+            return;
+        }
+        String[] d = new String[count];
+        for(int i = 0; i < count; i++) {
+            d[i] = decodeDetails(i);
+        }
+        released = d;
+        unmap(buf);
+    }
+
+    /**
+     * Returns the next activity in the snapshot.  Its details are not decoded
+     * until they are requested, but their location is validated here so that
+     * decoding them later cannot fail.
+     * @return the next activity, or <code>null</code> if every activity has
+     * been read
+     * @throws ParseException if the record is corrupt
+     */
+    @Override
+    public CLActivity next() throws ParseException {
+        if(index >= count) {
+            return null;
+        }
+        MappedCLActivity a = new MappedCLActivity(this, index);
+        int p = fill(a, index);
+        long offset = buf.getLong(p + 32);
+        int length = buf.getInt(p + 40);
+        if(offset < 0 || length < 0 || detailsStart + offset + length > buf.limit()) {
+            throw new ParseException("Corrupt snapshot record "+index, 0);
+        }
+        index++;
+        return a;
+    }
+
+    /*
+     * Returns the details of the index-th record.  Safe to call from any
+     * thread; the lock only keeps the file from being unmapped during a read.
+     */
+    String details(int index) {
+        String[] d = released;
+        if(d != null) {
+            return d[index];
+        }
+        synchronized(this) {
+            return (released != null) ? released[index] : decodeDetails(index);
+        }
+    }
+
+    private String decodeDetails(int index) {
+        int p = recordsStart + index * CLBinaryFormat.RECORD_SIZE;
+        long offset = buf.getLong(p + 32);
+        byte[] b = new byte[buf.getInt(p + 40)];
+        ByteBuffer d = buf.duplicate();
+        d.position((int) (detailsStart + offset));
+        d.get(b);
+        return new String(b, UTF8);
+    }
+
+    /*
+     * Unmaps a mapped buffer at once, rather than whenever it is garbage
+     * collected.  There is no public API for this: Java 9 and later provide
+     * Unsafe.invokeCleaner, and earlier versions a cleaner on the buffer
+     * itself.  If neither is available the mapping is left to the collector.
+     */
+    private static void unmap(ByteBuffer b) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), b);
+            return;
+        } catch(ReflectiveOperationException | RuntimeException ex) {
+            //not Java 9 or later
+        }
+        try {
+            Method cleaner = b.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Object c = cleaner.invoke(b);
+            if(c != null) {
+                c.getClass().getMethod("clean").invoke(c);
+            }
+        } catch(ReflectiveOperationException | RuntimeException ex) {
+            //left to the garbage collector
+        }
+    }
+
+    /*
+     * An activity whose details live in a MappedActivityStore until they are
+     * replaced through setDetails.
+     */
+    private static class MappedCLActivity extends CLActivity {
+        private MappedActivityStore store;
+        private final int index;
+
+        MappedCLActivity(MappedActivityStore store, int index) {
+            this.store = store;
+            this.index = index;
+        }
+
+        @Override
+        public String getDetails() {
+            MappedActivityStore s = store;
+            return (s == null) ? super.getDetails() : s.details(index);
+        }
+
+        @Override
+        public void setDetails(String details) {
+            store = null;
+            super.setDetails(details);
+        }
+    }
+
+}
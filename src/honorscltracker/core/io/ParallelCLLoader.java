@@ -0,0 +1,213 @@
+package honorscltracker.core.io;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.YearList;
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Loads large text .cl files using every available core.  The file is read
+ * into memory, cut into chunks just after <code>~/Activity~</code> lines, and
+ * the chunks are parsed concurrently by separate {@link CLReader}s on a
+ * <code>ForkJoinPool</code>.  Each reader is told how many lines precede its
+ * chunk, so line numbers in <code>ParseException</code>s still refer to the
+ * whole file.  The activities are then added to the <code>YearList</code> in
+ * file order on the calling thread.
+ *
+ * A <code>~/Activity~</code> line inside a details block would make a chunk
+ * end in the middle of a record.  The chunk then fails to parse, and the
+ * file is parsed again sequentially so that the result (and any error) is
+ * exactly that of {@link CLReader}.
+ * @author Connor Pierce
+ */
+public final class ParallelCLLoader {
+    private static final String END = "~/Activity~";
+    private static final int MIN_CHUNK = 1<<18;
+    private static ForkJoinPool pool;
+
+    private ParallelCLLoader() {
+    }
+
+    private static synchronized ForkJoinPool pool() {
+        if(pool == null) {
+            pool = new ForkJoinPool();
+        }
+        return pool;
+    }
+
+    /**
+     * Loads every comp learning activity in the given text file into the
+     * given years.
+     * @param f the file to load
+     * @param charset the character set of the file
+     * @param years the years to add the activities to
+     * @param progress receives the number of bytes parsed as each chunk
+     * completes, or <code>null</code>
+     * @throws ParseException if the file is malformed
+     * @throws IOException if the file cannot be read, or loading was
+     * interrupted
+     */
+    public static void load(File f, Charset charset, YearList years,
+            ProgressHandler progress) throws ParseException, IOException {
+        CharArrayWriter w = new CharArrayWriter((int) Math.min(f.length(), Integer.MAX_VALUE - 8));
+        try(Reader in = new InputStreamReader(new FileInputStream(f), charset)) {
+            char[] b = new char[1<<16];
+            int n;
+            while((n = in.read(b)) > 0) {
+                w.write(b, 0, n);
+                CLFiles.checkInterrupted();
+            }
+        }
+        char[] text = w.toCharArray();
+        w = null;
+
+        int chunks = Math.max(1, Math.min(pool().getParallelism() * 4, text.length / MIN_CHUNK));
+        List<Chunk> tasks = split(text, chunks);
+        List<CLActivity> parsed;
+        try {
+            for(Chunk c : tasks) {
+                pool().execute(c);
+            }
+            parsed = new ArrayList<>();
+            long done = 0;
+            for(Chunk c : tasks) {
+                parsed.addAll(c.get());
+                done += c.length;
+                if(progress != null) {
+                    progress.progress(done, text.length);
+                }
+            }
+        } catch(ExecutionException ex) {
+            for(Chunk c : tasks) {
+                c.cancel(true);
+            }
+            Throwable cause = ex.getCause();
+            while(cause instanceof ChunkException) {
+                cause = cause.getCause();
+            }
+            if(cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if(cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            //possibly a chunk boundary inside a details block; let the
+            //sequential parser give the authoritative result
+            parsed = parse(new CharArrayReader(text), 0);
+        } catch(InterruptedException ex) {
+            for(Chunk c : tasks) {
+                c.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException();
+        }
+        for(int i = 0; i < parsed.size(); i++) {
+            years.addData(parsed.get(i));
+            if(i % CLFiles.REPORT_INTERVAL == 0) {
+                CLFiles.checkInterrupted();
+            }
+        }
+    }
+
+    /*
+     * Cuts the text into about the given number of chunks, each ending just
+     * after an ~/Activity~ line, and counts the lines preceding each chunk the
+     * same way BufferedReader.readLine does (\n, \r or \r\n).
+     */
+    private static List<Chunk> split(char[] text, int chunks) {
+        List<Chunk> result = new ArrayList<>();
+        int target = text.length / chunks;
+        int start = 0, startLine = 0, line = 0;
+        int lineStart = 0;
+        for(int i = 0; i < text.length; i++) {
+            char c = text[i];
+            if(c != '\n' && c != '\r') {
+                continue;
+            }
+            boolean end = isEnd(text, lineStart, i);
+            if(c == '\r' && i + 1 < text.length && text[i + 1] == '\n') {
+                i++;
+            }
+            line++;
+            lineStart = i + 1;
+            if(end && lineStart - start >= target && lineStart < text.length) {
+                result.add(new Chunk(text, start, lineStart - start, startLine));
+                start = lineStart;
+                startLine = line;
+            }
+        }
+        result.add(new Chunk(text, start, text.length - start, startLine));
+        return result;
+    }
+
+    private static boolean isEnd(char[] text, int from, int to) {
+        if(to - from != END.length()) {
+            return false;
+        }
+        for(int i = 0; i < END.length(); i++) {
+            if(text[from + i] != END.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<CLActivity> parse(Reader in, int firstLine)
+            throws ParseException, IOException {
+        List<CLActivity> result = new ArrayList<>();
+        CLReader r = new CLReader(in, firstLine);
+        CLActivity a;
+        while((a = r.next()) != null) {
+            result.add(a);
+        }
+        return result;
+    }
+
+    /*
+     * Parses one chunk of the file
+     */
+    private static class Chunk extends RecursiveTask<List<CLActivity>> {
+        private static final long serialVersionUID = 1L;
+        private final char[] text;
+        private final int offset, length, firstLine;
+
+        Chunk(char[] text, int offset, int length, int firstLine) {
+            this.text = text;
+            this.offset = offset;
+            this.length = length;
+            this.firstLine = firstLine;
+        }
+
+        @Override
+        protected List<CLActivity> compute() {
+            try {
+                return parse(new CharArrayReader(text, offset, length), firstLine);
+            } catch(ParseException | IOException ex) {
+                throw new ChunkException(ex);
+            }
+        }
+    }
+
+    /*
+     * Carries a checked exception out of a ForkJoinTask
+     */
+    private static class ChunkException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ChunkException(Exception cause) {
+            super(cause);
+        }
+    }
+
+}
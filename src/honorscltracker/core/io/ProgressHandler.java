@@ -0,0 +1,21 @@
+package honorscltracker.core.io;
+
+/**
+ * Receives progress reports from long-running file operations, such as
+ * {@link CLFiles#load(java.io.File, honorscltracker.core.YearList, ProgressHandler)}.
+ * Reports are made from the thread performing the operation.
+ * @author Connor Pierce
+ */
+public abstract class ProgressHandler {
+
+    /**
+     * Called periodically while an operation runs.  The units of
+     * <code>done</code> and <code>total</code> depend on the operation (bytes
+     * read, or activities processed), but <code>done</code> never exceeds
+     * <code>total</code>.
+     * @param done the amount of work completed so far
+     * @param total the total amount of work
+     */
+    public abstract void progress(long done, long total);
+
+}
@@ -0,0 +1,115 @@
+package honorscltracker.graphics;
+
+import honorscltracker.Handler;
+import honorscltracker.core.PrefixIndex;
+import java.util.List;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.ActionEvent;
+import javafx.event.EventHandler;
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.TextField;
+
+/**
+ * Suggests completions for a <code>TextField</code> as the user types.  Each
+ * time the text changes, the values in a {@link PrefixIndex} that begin with
+ * it are listed in a drop-down menu under the field; choosing one puts it in
+ * the field.  Changes made to the field by the program, rather than by the
+ * user typing, do not show the menu.
+ * @author Connor Pierce
+ */
+public class AutoComplete {
+    private static final int MAX_SUGGESTIONS = 8;
+    private final TextField field;
+    private final ContextMenu menu = new ContextMenu();
+    private PrefixIndex index; //values to suggest
+    private Handler chosenHandler; //handler called when user picks a value
+    private boolean choosing; //true while the field is set to a suggestion
+
+    /**
+     * Adds suggestions to the given field.  No suggestions are shown until an
+     * index is set.
+     * @param field the field to complete
+     */
+    public AutoComplete(TextField field) {
+        this.field = field;
+        field.textProperty().addListener(new ChangeListener<String>() {
+
+            @Override
+            public void changed(ObservableValue<? extends String> ov, String oldText, String newText) {
+                if(!choosing && AutoComplete.this.field.isFocused()) {
+                    suggest(newText);
+                }
+            }
+        });
+        field.focusedProperty().addListener(new ChangeListener<Boolean>() {
+
+            @Override
+            public void changed(ObservableValue<? extends Boolean> ov, Boolean oldValue, Boolean newValue) {
+                if(!newValue) {
+                    menu.hide();
+                }
+            }
+        });
+    }
+
+    /**
+     * Sets the values to suggest.
+     * @param index the values previously entered in this field
+     */
+    public void setIndex(PrefixIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Sets the handler to be called when the user chooses one of the
+     * suggestions.  The chosen <code>String</code> is passed to the
+     * <code>action</code> method.
+     * @param h the handler to be called when a suggestion is chosen
+     */
+    public void setChosenHandler(Handler h) {
+        chosenHandler = h;
+    }
+
+    /*
+     * Lists the values starting with the given text under the field, or hides
+     * the list if there are none other than the text itself
+     */
+    private void suggest(String text) {
+        List<String> found = (index == null) ? null : index.complete(text, MAX_SUGGESTIONS);
+        if(found == null || found.isEmpty()
+                || (found.size() == 1 && found.get(0).equalsIgnoreCase(text.trim()))) {
+            menu.hide();
+            return;
+        }
+        menu.getItems().clear();
+        for(final String s : found) {
+            MenuItem item = new MenuItem(s);
+            item.setOnAction(new EventHandler<ActionEvent>() {
+
+                @Override
+                public void handle(ActionEvent t) {
+                    choose(s);
+                }
+            });
+            menu.getItems().add(item);
+        }
+        if(!menu.isShowing()) {
+            menu.show(field, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void choose(String s) {
+        choosing = true;
+        field.setText(s);
+        field.positionCaret(s.length());
+        choosing = false;
+        menu.hide();
+        if(chosenHandler != null) {
+            chosenHandler.action(s);
+        }
+    }
+
+}
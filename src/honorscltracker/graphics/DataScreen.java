@@ -4,15 +4,15 @@
  */
 package honorscltracker.graphics;
 
-import honorscltracker.CLActivity;
-import honorscltracker.Contact;
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.DateCodec;
+import honorscltracker.core.EntrySuggestions;
 import honorscltracker.Handler;
-import honorscltracker.Main;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.GregorianCalendar;
 import java.util.HashMap;
-import java.util.TreeSet;
+import java.util.SortedSet;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.geometry.Insets;
@@ -49,6 +49,9 @@ public class DataScreen extends Screen {
     private ComboBox yearCombo;
     private TextField dateField, contactNameField, contactEmailField,
             contactPhoneField, shortDescField, hoursField;
+    private AutoComplete descCompletion, nameCompletion, emailCompletion,
+            phoneCompletion;
+    private EntrySuggestions suggestions; //values entered in earlier activities
     private Button addActivity;
     private Text message;
     private HTMLEditor detailsField;
@@ -60,9 +63,9 @@ public class DataScreen extends Screen {
      * @param prefs the GUI preferences
      * @param years years for which the user's has previous comp learning 
      * activities.  Used for initializing 'year' combo box. Should be obtained
-     * from <code>honorscltracker.YearList.getYearList()</code>
+     * from <code>honorscltracker.core.YearList.getYearList()</code>
      */
-    public DataScreen(Stage primaryStage, HashMap<String, Object> prefs, TreeSet<String> years) {
+    public DataScreen(Stage primaryStage, HashMap<String, Object> prefs, SortedSet<String> years) {
         super(primaryStage, prefs, "data");
         this.scrollpane = new ScrollPane();
         // By default, we're not editing anything an activity; we're creating
@@ -75,7 +78,7 @@ public class DataScreen extends Screen {
     /*
      * Initializes and lays out the data input elements.
      */
-    private void init(TreeSet<String> years) {
+    private void init(SortedSet<String> years) {
         Group content = new Group();
         
         VBox v = new VBox();
@@ -124,6 +127,25 @@ public class DataScreen extends Screen {
         contact.getChildren().add(contactNameField);
         contact.getChildren().add(contactEmailField);
         contact.getChildren().add(contactPhoneField);
+        nameCompletion = new AutoComplete(contactNameField);
+        nameCompletion.setChosenHandler(new Handler() {
+
+            @Override
+            public void action(Object data) {
+                //fill in the rest of a known contact, unless already entered
+                Contact c = suggestions.getContact((String) data);
+                if(c != null) {
+                    if(isBlank(contactEmailField.getText())) {
+                        contactEmailField.setText(c.getEmail());
+                    }
+                    if(isBlank(contactPhoneField.getText())) {
+                        contactPhoneField.setText(c.getPhone());
+                    }
+                }
+            }
+        });
+        emailCompletion = new AutoComplete(contactEmailField);
+        phoneCompletion = new AutoComplete(contactPhoneField);
         hb3.getChildren().add(contact);
         hb3.setAlignment(Pos.CENTER_LEFT);
         hb3.setSpacing(5);
@@ -136,6 +158,20 @@ public class DataScreen extends Screen {
         l4.setStyle(labelStyle);
         hb4.getChildren().add(l4);
         hb4.getChildren().add(shortDescField);
+        descCompletion = new AutoComplete(shortDescField);
+        descCompletion.setChosenHandler(new Handler() {
+
+            @Override
+            public void action(Object data) {
+                //fill in the contact from the latest activity of this kind
+                Contact c = suggestions.getLatestContact((String) data);
+                if(c != null) {
+                    contactNameField.setText(c.getName());
+                    contactEmailField.setText(c.getEmail());
+                    contactPhoneField.setText(c.getPhone());
+                }
+            }
+        });
         hb4.setAlignment(Pos.CENTER_LEFT);
         hb4.setSpacing(5);
         v.getChildren().add(hb4);
@@ -242,16 +278,34 @@ public class DataScreen extends Screen {
      * @param years the collection of academic years ("####-##") to be displayed
      * in the years combo box
      */
-    public void updateYearCombo(TreeSet<String> years) {
+    public void updateYearCombo(SortedSet<String> years) {
         yearCombo.setItems(javafx.collections.FXCollections.observableArrayList(years));
     }
     
+    /**
+     * Sets the values from earlier activities to be suggested as the user
+     * types a description or contact.
+     * @param suggestions the entry suggestions for the open file; should be
+     * obtained from <code>honorscltracker.core.YearList.getSuggestions()</code>
+     */
+    public void setSuggestions(EntrySuggestions suggestions) {
+        this.suggestions = suggestions;
+        descCompletion.setIndex(suggestions.getDescs());
+        nameCompletion.setIndex(suggestions.getContactNames());
+        emailCompletion.setIndex(suggestions.getContactEmails());
+        phoneCompletion.setIndex(suggestions.getContactPhones());
+    }
+    
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+    
     /*
      * The function that is called when the submit button is clicked.
      */
     private void buttonClicked() {
         ArrayList<String> missingFields = new ArrayList<>();
-        GregorianCalendar d = new GregorianCalendar();
+        int d = 0;
         String contactName = contactNameField.getText();
         if(contactName == null) {
             contactName = "";
@@ -289,7 +343,7 @@ public class DataScreen extends Screen {
             missingFields.add("academic year");
         }
         try {
-            d.setTime(Main.format.parse(dateField.getText()));
+            d = DateCodec.parse(dateField.getText());
         } catch(ParseException ex) {
             missingFields.add("date");
         }
@@ -308,12 +362,8 @@ public class DataScreen extends Screen {
         //activity being edited "owns" the dataScreen. The local variable j is
         //set to owner, so changes should be automatically be reflected on the
         //mainScreen when the screen is repainted.
-        Contact c = new Contact();
-        c.setEmail(contactEmail);
-        c.setName(contactName);
-        c.setPhone(contactPhone);
-        j.setContact(c);
-        j.setDate(d);
+        j.setContact(new Contact(contactName, contactEmail, contactPhone));
+        j.setEpochDay(d);
         j.setDesc(shortDesc);
         j.setDetails(details);
         j.setHours(hours);
@@ -398,7 +448,7 @@ public class DataScreen extends Screen {
     public void setOwner(CLActivity owner) {
         if(owner != null) {
             yearCombo.setValue(owner.getYearString());
-            dateField.setText(Main.format.format(owner.getDate().getTime()));
+            dateField.setText(DateCodec.format(owner.getEpochDay()));
             contactNameField.setText(owner.getContact().getName());
             contactEmailField.setText(owner.getContact().getEmail());
             contactPhoneField.setText(owner.getContact().getPhone());
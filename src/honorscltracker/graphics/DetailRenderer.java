@@ -0,0 +1,193 @@
+package honorscltracker.graphics;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.Contact;
+import honorscltracker.core.DateCodec;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.concurrent.Worker;
+import javafx.scene.web.WebEngine;
+import netscape.javascript.JSObject;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Shows the details of comp learning activities in a <code>WebEngine</code>.
+ * The page, with its stylesheet and a placeholder for every field, is loaded
+ * only once; showing an activity just replaces the text of the fields, so
+ * WebKit neither re-parses the stylesheet nor lays out a new document.
+ *
+ * An activity's extended description is HTML, and is the only part that has
+ * to be parsed.  The parsed descriptions of the most recently shown
+ * activities are kept, so that going back to one of them only swaps the
+ * already-parsed element into the page.
+ *
+ * Descriptions may contain links.  If one is followed, the engine leaves the
+ * page; the page is loaded again (and the parsed descriptions, which belonged
+ * to it, are discarded) the next time an activity is shown.
+ * @author Connor Pierce
+ */
+public class DetailRenderer {
+    /**
+     * Number of parsed descriptions kept.
+     */
+    public static final int CACHE_SIZE = 32;
+    //id of the page's body, telling it apart from pages reached by links
+    private static final String MARKER = "honorscltracker-details";
+    private static final String TEMPLATE = "<html><head><style>"
+            + "h1.organization{font:18pt bold;font-family:sans-serif;}"
+            + "body{background:#DDD;}"
+            + "span.contact-name{font:14pt italic;font-family:sans-serif;}"
+            + "span.label{font:10pt;font-family:sans-serif;}"
+            + "span.contact-phone{font:11pt;font-family:sans-serif;}"
+            + "span.contact-email{font:11pt;font-family:monospace;}"
+            + "p.default{font:10pt;}table.noborders{border:0px;}"
+            + "td.spaced{padding:10px;height:25px;}"
+            + "</style></head>"
+            + "<body id='" + MARKER + "'><h1 class='organization' id='organization'></h1>"
+            + "<table class='noborders'>"
+            + "<tr><td class='spaced'><span class='label'>Contact Name: </span></td>"
+            + "<td class='spaced'><span class='contact-name' id='contact-name'></span></td></tr>"
+            + "<tr><td class='spaced'><span class='label'>Email: </span></td>"
+            + "<td class='spaced'><span class='contact-email' id='contact-email'></span></td></tr>"
+            + "<tr><td class='spaced'><span class='label'>Phone: </span></td>"
+            + "<td class='spaced'><span class='contact-phone' id='contact-phone'></span></td></tr>"
+            + "</table>"
+            + "<p class='default'>Date: <span id='date'></span></p>"
+            + "<p class='default'>Hours: <span id='hours'></span></p>"
+            + "<div id='details'></div></body></html>";
+
+    private final WebEngine engine;
+    private Document document;
+    private Element organization, contactName, contactEmail, contactPhone, date, hours;
+    private Element details;
+    //activity to show once the page has loaded
+    private CLActivity pending;
+    //whether the page has been asked for and has not finished loading
+    private boolean loadingPage;
+    private final LinkedHashMap<CLActivity, Rendered> cache =
+            new LinkedHashMap<CLActivity, Rendered>(CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CLActivity, Rendered> e) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+
+    /*
+     * A parsed description, and the HTML it was parsed from, in case the
+     * activity has changed since
+     */
+    private static class Rendered {
+        final String html;
+        final Element element;
+
+        Rendered(String html, Element element) {
+            this.html = html;
+            this.element = element;
+        }
+    }
+
+    /**
+     * Creates a renderer that shows activities in the given engine, and
+     * starts loading the page into it.
+     * @param engine the engine to show activities in
+     */
+    public DetailRenderer(final WebEngine engine) {
+        this.engine = engine;
+        engine.getLoadWorker().stateProperty().addListener(new ChangeListener<Worker.State>() {
+            @Override
+            public void changed(ObservableValue<? extends Worker.State> ov,
+                    Worker.State old, Worker.State state) {
+                switch(state) {
+                    case SUCCEEDED:
+                        loadingPage = false;
+                        Document d = engine.getDocument();
+                        if(d != null && d.getElementById(MARKER) != null) {
+                            loaded();
+                        }
+                        break;
+                    case FAILED:
+                    case CANCELLED:
+                        loadingPage = false;
+                        break;
+                    default:
+                        //the current page, or a link followed from it, is
+                        //being replaced
+                        unloaded();
+                        break;
+                }
+            }
+        });
+        load();
+    }
+
+    /**
+     * Shows the details of the given activity.  If the page is still
+     * loading, the activity is shown as soon as it has loaded.
+     * @param c the comp learning activity to show
+     */
+    public void show(CLActivity c) {
+        if(document == null) {
+            pending = c;
+            if(!loadingPage) {
+                load();
+            }
+            return;
+        }
+        Contact contact = c.getContact();
+        organization.setTextContent(c.getDesc());
+        contactName.setTextContent(contact.getName());
+        contactEmail.setTextContent(contact.getEmail());
+        contactPhone.setTextContent(contact.getPhone());
+        date.setTextContent(DateCodec.format(c.getEpochDay()));
+        hours.setTextContent(String.valueOf(c.getHours()));
+
+        String html = (c.getDetails() != null) ? c.getDetails() : "";
+        Rendered r = cache.get(c);
+        if(r == null || !r.html.equals(html)) {
+            Element e = document.createElement("div");
+            ((JSObject) e).setMember("innerHTML", html);
+            r = new Rendered(html, e);
+            cache.put(c, r);
+        }
+        while(details.getFirstChild() != null) {
+            details.removeChild(details.getFirstChild());
+        }
+        details.appendChild(r.element);
+        engine.executeScript("window.scrollTo(0, 0)");
+    }
+
+    private void load() {
+        loadingPage = true;
+        engine.loadContent(TEMPLATE);
+    }
+
+    private void loaded() {
+        document = engine.getDocument();
+        organization = document.getElementById("organization");
+        contactName = document.getElementById("contact-name");
+        contactEmail = document.getElementById("contact-email");
+        contactPhone = document.getElementById("contact-phone");
+        date = document.getElementById("date");
+        hours = document.getElementById("hours");
+        details = document.getElementById("details");
+        if(pending != null) {
+            CLActivity c = pending;
+            pending = null;
+            show(c);
+        }
+    }
+
+    /*
+     * Forgets the page, and every element that belonged to it
+     */
+    private void unloaded() {
+        document = null;
+        organization = contactName = contactEmail = contactPhone = date = hours = null;
+        details = null;
+        cache.clear();
+    }
+
+}
@@ -1,8 +1,7 @@
 package honorscltracker.graphics;
 
-import honorscltracker.CLActivity;
+import honorscltracker.core.CLActivity;
 import honorscltracker.Handler;
-import honorscltracker.Main;
 import java.util.HashMap;
 import javafx.event.EventHandler;
 import javafx.scene.Group;
@@ -23,6 +22,7 @@ import javafx.stage.Stage;
  */
 public class DetailScreen extends Screen {
     private WebView view;
+    private DetailRenderer renderer;
     private Handler mainscreenRequest;
     
     /**
@@ -37,6 +37,7 @@ public class DetailScreen extends Screen {
         view.setLayoutX(10);
         view.setLayoutY(25);
         getChildren().add(view);
+        renderer = new DetailRenderer(view.getEngine());
         
         Group backButton = new Group();
         Rectangle backButtonBg = new Rectangle(6, 30);
@@ -102,31 +103,7 @@ public class DetailScreen extends Screen {
      * @param c the comp learning activity to display details for
      */
     public void setCLActivity(CLActivity c) {
-        String document = "<html><head><style>"
-                + "h1.organization{font:18pt bold;font-family:sans-serif;}";
-        document += "body{background:#DDD;}";
-        document += "span.contact-name{font:14pt italic;font-family:sans-serif;}";
-        document += "span.label{font:10pt;font-family:sans-serif;";
-        document += "span.contact-phone{font:11pt font-family:sans-serif;}";
-        document += "span.contact-email{font:11pt; font-family: monospace;}";
-        document += "p.default{font:10pt;}table.noborders{border:0px;}";
-        document += "td.spaced{padding:10px;height:25px;}";
-        document += "</style></head>";
-        document += "<body><h1 class='organization'>"+c.getDesc()+"</h1>";
-        document += "<table class='noborders'>";
-        document += "<tr><td class='spaced'><span class='label'>Contact Name: </span></td>"
-                + "<td class='spaced'><span class='contact-name'>"+c.getContact().getName()+"</span></td></tr>";
-        document += "<tr><td class='spaced'><span class='label'>Email: </span></td>"
-                + "<td class='spaced'><span class='contact-email'>"+c.getContact().getEmail()+"</span></td></tr>";
-        document += "<tr><td class='spaced'><span class='label'>Phone: </span></td>"
-                + "<td class='spaced'><span class='contact-phone'>"+c.getContact().getPhone()+"</span></td></tr>";
-        document += "</table>";
-        document += "<p class='default'>Date: "+Main.format.format(c.getDate().getTime())+"</p>";
-        document += "<p class='default'>Hours: "+c.getHours()+"</p>";
-        document += c.getDetails()+"</body></html>";
-//        System.out.println(document);
-        javafx.scene.web.WebEngine eng = view.getEngine();
-        eng.loadContent(document);
+        renderer.show(c);
     }
     
 }
@@ -1,15 +1,17 @@
 package honorscltracker.graphics;
 
 import honorscltracker.Handler;
+import honorscltracker.core.io.CLFiles;
 import java.io.File;
 import java.util.HashMap;
 import java.util.List;
+import javafx.concurrent.Worker;
 import javafx.event.ActionEvent;
 import javafx.event.Event;
 import javafx.event.EventHandler;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
-import javafx.scene.control.TextField;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.input.DragEvent;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.HBox;
@@ -30,11 +32,20 @@ public class HomeScreen extends Screen {
     private Handler openFileHandler;
     private VBox content;
     private final FileChooser fileChooser;
-    private TextField f;
+    private Text status; //shows file errors and loading progress
+    private HBox progressBox; //progress bar and cancel button
+    private ProgressBar progressBar;
+    private Worker<?> loading; //the file currently being loaded
     
     public HomeScreen(Stage primaryStage, HashMap<String, Object> settings) {
         super(primaryStage, settings, "home");
         fileChooser = new FileChooser();
+        //text and snapshot files are told apart by their contents, so both
+        //can be offered together
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Comp learning files", "*.cl",
+                        "*"+CLFiles.SNAPSHOT_EXTENSION),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
         init(primaryStage, settings);
     }
     
@@ -79,6 +90,30 @@ public class HomeScreen extends Screen {
         buttonBox.getChildren().add(chooseButton);
         content.getChildren().add(buttonBox);
         
+        status = new Text("");
+        status.setFont((Font) settings.get("homescreenTextFont"));
+        status.setFill((Paint) settings.get("homescreenTextPaint"));
+        content.getChildren().add(status);
+        
+        progressBox = new HBox();
+        progressBox.setAlignment(Pos.CENTER);
+        progressBox.setSpacing(10);
+        progressBar = new ProgressBar();
+        progressBar.setPrefWidth(300);
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(new EventHandler<ActionEvent>() {
+
+            @Override
+            public void handle(ActionEvent arg0) {
+                if(loading != null) {
+                    loading.cancel();
+                }
+            }
+        });
+        progressBox.getChildren().addAll(progressBar, cancelButton);
+        progressBox.setVisible(false);
+        content.getChildren().add(progressBox);
+        
         content.setPrefSize((Double) settings.get("stageWidth") - 20, (Double) settings.get("stageHeight") - 35);
         content.setLayoutX(10);
         content.setLayoutY(25);
@@ -95,8 +130,32 @@ public class HomeScreen extends Screen {
     }
     
     public void fileError(String errMsg) {
-        f.setText("Could not open file; "+errMsg);
-        f.setAlignment(Pos.CENTER);
+        status.textProperty().unbind();
+        status.setText("Could not open file; "+errMsg);
+    }
+    
+    /**
+     * Shows the progress of a file that is being loaded, with a button that
+     * cancels it.  The progress is shown until {@link #hideProgress()} is
+     * called.
+     * @param task the background task loading the file
+     */
+    public void showProgress(Worker<?> task) {
+        loading = task;
+        progressBar.progressProperty().bind(task.progressProperty());
+        status.textProperty().bind(task.messageProperty());
+        progressBox.setVisible(true);
+    }
+    
+    /**
+     * Hides the progress shown by {@link #showProgress(Worker)}.
+     */
+    public void hideProgress() {
+        loading = null;
+        progressBar.progressProperty().unbind();
+        status.textProperty().unbind();
+        status.setText("");
+        progressBox.setVisible(false);
     }
     
 }
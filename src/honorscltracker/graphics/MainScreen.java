@@ -1,16 +1,22 @@
 package honorscltracker.graphics;
 
-import honorscltracker.CLActivity;
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.DateCodec;
 import honorscltracker.Handler;
-import honorscltracker.Main;
-import honorscltracker.Year;
+import honorscltracker.core.Year;
+import java.util.ArrayList;
 import java.util.HashMap;
+import javafx.concurrent.Worker;
 import javafx.event.EventHandler;
 import javafx.geometry.VPos;
 import javafx.scene.Group;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.Line;
 import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
@@ -34,6 +40,10 @@ public class MainScreen extends Screen {
     private Group homeButton; //button to show the homescreen
     private Group inputButton; //button to show the datascreen
     private Group saveButton; //button to save changes to file
+    private Group statisticsButton; //button to show the statistics screen
+    private Group searchButton; //button to show the search screen
+    private ProgressBar saveProgress; //progress of a save in progress
+    private Text saveError; //why the last change or save could not be written
     private Group table; //table displaying comp learning activity
     private Handler homescreenRequest; //handler called when homeButton is
                                        //clicked
@@ -46,9 +56,29 @@ public class MainScreen extends Screen {
     private Handler nextYearRequest; //handler called when user clicks
                                      //nextButton
     private Handler saveRequest; //handler called when user clicks save button
+    private Handler statisticsRequest; //handler called when user clicks
+                                       //statisticsButton
+    private Handler searchRequest; //handler called when user clicks
+                                   //searchButton
     private Handler editRequest; //handler called when user right-clicks on
                                  //table, wants to edit a comp learning activity
     private double tableY; //y coordinate of the top of the table
+    private ArrayList<CLActivity> rows = new ArrayList<>(); //activities in the
+                                                          //order shown
+    private double totalHours; //total of the hours column
+    private TableRow[] rowPool; //the rows on screen, rebound as the table
+                                //scrolls
+    private double rowHeight; //height of one row of the table
+    private double scrollOffset; //distance the table is scrolled down
+    private double[] columnX = new double[4]; //layout of the table columns
+    private double[] columnMaxWidth = {Double.NaN, 180, 180, 180};
+    private double[] cellWidth = new double[4]; //widest cell in each column
+    private double[] headerWidth = new double[4];
+    private Text[] headers; //column headers
+    private Scrollbar scrollBar; //scrollbar for the table
+    private TextMetrics metrics; //measures cell text without displaying it
+    private HelpHint hhTable, hhTableTotal;
+    private static final int OVERSCAN = 2; //spare rows beyond the visible area
     
     /**
      * Creates a new <code>MainScreen</code> and initializes GUI components.
@@ -72,12 +102,17 @@ public class MainScreen extends Screen {
     
     /**
      * Changes the year for which this screen is displaying data.  Title and
-     * table are updated to display the given <code>Year</code>.
+     * table are updated to display the given <code>Year</code>.  If the given
+     * <code>Year</code> is already in view, nothing is redrawn; changes to it
+     * should be reported through {@link #activityAdded(CLActivity)} and the
+     * related methods instead.
      * @param data the new <code>Year</code> for which to display data
      */
     public void update(Year data) {
-        this.data = data;
-        update();
+        if(data != this.data) {
+            this.data = data;
+            update();
+        }
     }
     
     /**
@@ -155,6 +190,49 @@ public class MainScreen extends Screen {
         saveRequest = h;
     }
     
+    /**
+     * Sets the handler to be called when the user clicks the statistics
+     * button.  <code>null</code> is passed to the <code>action</code> method.
+     * @param h the handler to be called when the user clicks the statistics
+     * button
+     */
+    public void setStatisticsScreenRequestHandler(Handler h) {
+        statisticsRequest = h;
+    }
+    
+    /**
+     * Sets the handler to be called when the user clicks the search button.
+     * <code>null</code> is passed to the <code>action</code> method.
+     * @param h the handler to be called when the user clicks the search
+     * button
+     */
+    public void setSearchScreenRequestHandler(Handler h) {
+        searchRequest = h;
+    }
+    
+    /**
+     * Shows the progress of a save running in the background, next to the save
+     * button.  The progress bar disappears when the save finishes.
+     * @param task the background task saving the file
+     */
+    public void showSaveProgress(Worker<?> task) {
+        saveError.setVisible(false);
+        saveProgress.progressProperty().bind(task.progressProperty());
+        saveProgress.visibleProperty().bind(task.runningProperty());
+    }
+    
+    /**
+     * Shows, next to the save button, that changes could not be written to
+     * the file.  The message is shown until the next save is started.
+     * @param errMsg the reason the changes could not be written
+     */
+    public void saveError(String errMsg) {
+        saveError.setText("Could not save changes; "+errMsg);
+        saveError.setLayoutX((Double) settings.get("stageWidth")-385
+                -saveError.getBoundsInLocal().getWidth());
+        saveError.setVisible(true);
+    }
+    
     /*
      * Finds the dimenions of the title Text object, and lays it out to be
      * centered horizontally and aligned 10 pixels above the table.
@@ -179,6 +257,7 @@ public class MainScreen extends Screen {
         double stageWidth = (Double) settings.get("stageWidth");
         
         getTable();
+        loadTable();
         Paint helpBG = (Paint) settings.get("mainscreenBGPaint");
         Paint helpFG = (Paint) settings.get("mainscreenBGStroke");
         
@@ -338,6 +417,103 @@ public class MainScreen extends Screen {
         });
         content.getChildren().add(saveButton);
         
+        statisticsButton = new Group();
+        Rectangle statisticsButtonBg = new Rectangle(30, 7);
+        statisticsButtonBg.setStroke((Paint) settings.get("mainscreenButtonOutlinePaint"));
+        statisticsButtonBg.setFill((Paint) settings.get("mainscreenButtonBGPaint"));
+        statisticsButton.getChildren().add(statisticsButtonBg);
+        for(int i = 0; i < 3; i++) {
+            Rectangle statisticsButtonFg = new Rectangle(0, 0, 1.5, 2 + i);
+            statisticsButtonFg.setFill((Paint) settings.get("mainscreenButtonFGPaint"));
+            statisticsButtonFg.setLayoutX(12 + 2.5*i); statisticsButtonFg.setLayoutY(5.5 - (2 + i));
+            statisticsButton.getChildren().add(statisticsButtonFg);
+        }
+        statisticsButton.setLayoutX((Double) settings.get("stageWidth")-225);
+        statisticsButton.setLayoutY(-7.5);
+        final HelpHint hhStatisticsButton = new HelpHint(helpFG, helpBG, helpFG, "Click to view statistics for every year.");
+        hhStatisticsButton.setLayoutX(stageWidth-195-hhStatisticsButton.getBoundsInParent().getWidth());
+        hhStatisticsButton.setLayoutY(10);
+        hhStatisticsButton.setVisible(false);
+        statisticsButton.setOnMouseEntered(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                hhStatisticsButton.setVisible(helpEnabled);
+            }
+        });
+        statisticsButton.setOnMouseExited(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                hhStatisticsButton.setVisible(false);
+            }
+        });
+        statisticsButton.setOnMouseClicked(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent arg0) {
+                statisticsRequest.action(null);
+            }
+        });
+        content.getChildren().add(statisticsButton);
+        
+        searchButton = new Group();
+        Rectangle searchButtonBg = new Rectangle(30, 7);
+        searchButtonBg.setStroke((Paint) settings.get("mainscreenButtonOutlinePaint"));
+        searchButtonBg.setFill((Paint) settings.get("mainscreenButtonBGPaint"));
+        searchButton.getChildren().add(searchButtonBg);
+        Circle searchButtonLens = new Circle(13.5, 3, 1.75);
+        searchButtonLens.setFill(Color.TRANSPARENT);
+        searchButtonLens.setStroke((Paint) settings.get("mainscreenButtonFGPaint"));
+        searchButton.getChildren().add(searchButtonLens);
+        Line searchButtonHandle = new Line(15, 4.5, 17, 6);
+        searchButtonHandle.setStroke((Paint) settings.get("mainscreenButtonFGPaint"));
+        searchButton.getChildren().add(searchButtonHandle);
+        searchButton.setLayoutX((Double) settings.get("stageWidth")-265);
+        searchButton.setLayoutY(-7.5);
+        final HelpHint hhSearchButton = new HelpHint(helpFG, helpBG, helpFG, "Click to search every year's comp learning.");
+        hhSearchButton.setLayoutX(stageWidth-235-hhSearchButton.getBoundsInParent().getWidth());
+        hhSearchButton.setLayoutY(10);
+        hhSearchButton.setVisible(false);
+        searchButton.setOnMouseEntered(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                hhSearchButton.setVisible(helpEnabled);
+            }
+        });
+        searchButton.setOnMouseExited(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                hhSearchButton.setVisible(false);
+            }
+        });
+        searchButton.setOnMouseClicked(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent arg0) {
+                searchRequest.action(null);
+            }
+        });
+        content.getChildren().add(searchButton);
+        
+        saveProgress = new ProgressBar();
+        saveProgress.setPrefSize(100, 7);
+        saveProgress.setMaxHeight(7);
+        saveProgress.setLayoutX((Double) settings.get("stageWidth")-375);
+        saveProgress.setLayoutY(-7.5);
+        saveProgress.setVisible(false);
+        content.getChildren().add(saveProgress);
+        
+        saveError = new Text("");
+        saveError.setFont(new Font(12));
+        saveError.setFill(Color.RED);
+        saveError.setTextOrigin(VPos.CENTER);
+        saveError.setLayoutY(-4);
+        saveError.setVisible(false);
+        content.getChildren().add(saveError);
+        
         homeButton = new Group();
         Rectangle homeButtonBg = new Rectangle(6, 30);
         homeButtonBg.setStroke((Paint) settings.get("mainscreenButtonOutlinePaint"));
@@ -381,177 +557,446 @@ public class MainScreen extends Screen {
         table.setLayoutX(10);
         content.getChildren().add(table);
         content.getChildren().addAll(hhPrevButton, hhNextButton, hhInputButton,
-                hhSaveButton, hhHomeButton);
+                hhSaveButton, hhStatisticsButton, hhSearchButton, hhHomeButton);
         content.setLayoutY(25);
         
         this.getChildren().add(content);
     }
     
+    /*
+     * Creates the parts of the table that do not depend on the year in view:
+     * the header, and enough rows to fill the visible part of the table (plus
+     * a few spare).  The rows are rebound to different activities as the
+     * scrollbar moves, so the size of the scene graph does not depend on the
+     * number of activities.
+     */
     private void getTable() {
-        final HelpHint hhTable = new HelpHint((Paint) settings.get("mainscreenBGStroke"),
+        hhTable = new HelpHint((Paint) settings.get("mainscreenBGStroke"),
                 (Paint) settings.get("mainscreenBGPaint"),
                 (Paint) settings.get("mainscreenBGStroke"),
                 "Left-click to view details.\nRight-click to edit.");
-        final HelpHint hhTableTotal = new HelpHint(
+        hhTableTotal = new HelpHint(
                 (Paint) settings.get("mainscreenBGStroke"),
                 (Paint) settings.get("mainscreenBGPaint"),
                 (Paint) settings.get("mainscreenBGStroke"),
                 "Total hours completed this year");
-        final Object[][] tableData = new Object[4][data.getSize()+1];
-        int row = 0;
-        Group dataRows = new Group();
         Text asdf = new Text("T");
         asdf.setFont((Font) settings.get("tableDataTextFont"));
-        double rowHeight = asdf.getBoundsInParent().getHeight() + 4;
-        double totalHours = 0;
+        rowHeight = asdf.getBoundsInParent().getHeight() + 4;
+        metrics = TextMetrics.get((Font) settings.get("tableDataTextFont"));
         final double stageWidth = (Double) settings.get("stageWidth");
-        System.out.println("Drawing table");
-        for(String s : data.getAllDescs()) {
-            int count = 0;
-            for(CLActivity c : data.getCLActivities(s)) {
-                if(count == 0) {
-                    tableData[0][row] = s;
-                }
-                tableData[1][row] = Main.format.format(c.getDate().getTime());
-                tableData[2][row] = c.getContact().getName();
-                tableData[3][row] = c.getHours();
-                totalHours += c.getHours();
-                dataRows.getChildren().add(getTableRowRect(row,rowHeight, c, hhTable));
-                count ++;
-                row ++;
-            }
-        }
-        
-        dataRows.getChildren().add(getTableRowRect(row, rowHeight, null, hhTableTotal));
-        tableData[2][tableData[2].length-1] = "TOTAL";
-        tableData[3][tableData[3].length-1] = totalHours;
         
-        Group c2 = getColumn(tableData[1], rowHeight, 180);
-        Text c2Head = new Text("Date");
-        c2Head.setTextOrigin(VPos.CENTER); 
-        c2Head.setFont((Font) settings.get("tableHeaderTextFont"));
-        c2Head.setFill((Paint) settings.get("tableHeaderTextPaint"));
-        double c2Width = Math.max(c2.getBoundsInParent().getWidth(),
-                c2Head.getBoundsInParent().getWidth())+10;
+        String[] names = {"Desc", "Date", "Contact", "Hours"};
+        headers = new Text[names.length];
+        for(int col = 0; col < names.length; col++) {
+            headers[col] = new Text(names[col]);
+            headers[col].setTextOrigin(VPos.CENTER); 
+            headers[col].setFont((Font) settings.get("tableHeaderTextFont"));
+            headers[col].setFill((Paint) settings.get("tableHeaderTextPaint"));
+            headerWidth[col] = headers[col].getBoundsInParent().getWidth();
+        }
         
-        final double headerRowHeight = c2Head.getBoundsInParent().getHeight()+10;
+        final double headerRowHeight = headers[1].getBoundsInParent().getHeight()+10;
         Rectangle headerBG = new Rectangle(0, 0, stageWidth-20, headerRowHeight);
         headerBG.setArcHeight(headerRowHeight/2);
         headerBG.setArcWidth(headerRowHeight/2);
         headerBG.setFill((Paint) settings.get("tableHeaderBGPaint"));
         table.getChildren().add(headerBG);
-        
-        Group c3 = getColumn(tableData[2], rowHeight, 180);
-        Text c3Head = new Text("Contact");
-        c3Head.setTextOrigin(VPos.CENTER); 
-        c3Head.setFont((Font) settings.get("tableHeaderTextFont"));
-        c3Head.setFill((Paint) settings.get("tableHeaderTextPaint"));
-        double c3Width = Math.max(c3.getBoundsInParent().getWidth(),
-                c3Head.getBoundsInParent().getWidth())+10;
-        
-        Group c4 = getColumn(tableData[3], rowHeight, 180);
-        Text c4Head = new Text("Hours");
-        c4Head.setTextOrigin(VPos.CENTER); 
-        c4Head.setFont((Font) settings.get("tableHeaderTextFont"));
-        c4Head.setFill((Paint) settings.get("tableHeaderTextPaint"));
-        double c4Width = Math.max(c4.getBoundsInParent().getWidth(),
-                c4Head.getBoundsInParent().getWidth())+10;
-        
-        Group c1 = getColumn(tableData[0], rowHeight, stageWidth-20-c2Width-c3Width-c4Width);
-        Text c1Head = new Text("Desc");
-        c1Head.setFont((Font) settings.get("tableHeaderTextFont"));
-        c1Head.setFill((Paint) settings.get("tableHeaderTextPaint"));
-        double c1Width = Math.max(c1.getBoundsInParent().getWidth(),
-                c1Head.getBoundsInParent().getWidth())+10;
-        c1Head.setTextOrigin(VPos.CENTER);
-        
-        if(row > 0) {
-            c1Head.setLayoutX(10);
-            c1Head.setLayoutY(headerRowHeight / 2);
-            table.getChildren().add(c1Head);
-            c2Head.setLayoutX(c1Width+10);
-            c2Head.setLayoutY(headerRowHeight / 2);
-            table.getChildren().add(c2Head);
-            c3Head.setLayoutX(c1Width+c2Width+10);
-            c3Head.setLayoutY(headerRowHeight / 2);
-            table.getChildren().add(c3Head);
-            c4Head.setLayoutX(c1Width+c2Width+c3Width+10);
-            c4Head.setLayoutY(headerRowHeight / 2);
-            table.getChildren().add(c4Head);
+        for(Text header : headers) {
+            header.setLayoutY(headerRowHeight / 2);
+            table.getChildren().add(header);
         }
         
-        c1.setLayoutX(10);
-        c2.setLayoutX(c1Width+10);
-        c3.setLayoutX(c1Width+c2Width+10);
-        c4.setLayoutX(c1Width+c2Width+c3Width+10);
-        dataRows.getChildren().add(c1);
-        dataRows.getChildren().add(c2);
-        dataRows.getChildren().add(c3);
-        dataRows.getChildren().add(c4);
+        final double availableSpace = ((Double) settings.get("stageHeight")) - tableY - headerRowHeight - 35;
+        double visibleHeight = availableSpace - 5;
+        Group dataRows = new Group();
+        dataRows.setClip(new Rectangle(0, 0, stageWidth - 20, visibleHeight));
+        rowPool = new TableRow[(int) Math.ceil(visibleHeight / rowHeight) + 1 + OVERSCAN];
+        for(int i = 0; i < rowPool.length; i++) {
+            rowPool[i] = new TableRow();
+            dataRows.getChildren().add(rowPool[i]);
+        }
         dataRows.setLayoutY(headerRowHeight+5);
         table.getChildren().add(dataRows);
         
-        final double availableSpace = ((Double) settings.get("stageHeight")) - tableY - headerRowHeight - 35;
-        Group scrollBar = new Scrollbar(availableSpace, 5, 0, dataRows,headerRowHeight, settings);
+        scrollBar = new Scrollbar(availableSpace, 5, 0, rowHeight,
+                new Handler() {
+                    @Override
+                    public void action(Object offset) {
+                        scrollTable((Double) offset);
+                    }
+                }, settings);
         scrollBar.setLayoutX(stageWidth-20-((Double)settings.get("scrollbarWidth")));
         scrollBar.setLayoutY(headerRowHeight);
         table.getChildren().add(scrollBar);
-        //TODO: table scroll bar
     }
     
     /*
-     * Lays out one column of text in the table, given the text to be displayed
-     * there as an Object[], the height of each row, and the maximum allowed
-     * width for the column.  Text will be truncated and an ellipsis ... added
-     * to it.
-     */
-    private Group getColumn(Object[] data, double rowHeight, double maxWidth) {
-        //TODO: no header -- put that in getTable so that it is unaffected by scrollbar
-        Group col = new Group();
-        
-        double y = 0;
-        for(Object o : data) {
-            Text rowData = new Text((o==null)?"":o.toString());
-            rowData.setTextOrigin(VPos.CENTER);
-            rowData.setFont((Font) settings.get("tableDataTextFont"));
-            rowData.setFill((Paint) settings.get("tableDataTextPaint"));
-            rowData.setLayoutY(y+rowHeight/2);
-            rowData.setMouseTransparent(true);
-            double dataWidth = rowData.getBoundsInParent().getWidth();
-            if(maxWidth > 0 && dataWidth > maxWidth - 4) {
-                double percent = (maxWidth < 4) ? 0 : ((maxWidth - 4) / dataWidth);
-                String newData = o.toString();
-                newData = newData.substring(0, (int) (newData.length()*percent) - 4);
-                newData += "...";
-                rowData.setText(newData);
-            }
-            col.getChildren().add(rowData);
-            y += rowHeight;
-        }
-        return col;
+     * Fills the table with the activities of the year in view, and scrolls
+     * back to the top
+     */
+    private void loadTable() {
+        System.out.println("Drawing table");
+        rows.clear();
+        for(String s : data.getAllDescs()) {
+            rows.addAll(data.getCLActivities(s));
+        }
+        totalHours = data.getSummary().getTotalHours();
+        for(int col = 1; col < cellWidth.length; col++) {
+            cellWidth[col] = getColumnWidth(col);
+        }
+        columnMaxWidth[0] = Double.NaN;
+        layoutColumns();
+        scrollBar.reset((rows.size() + 1) * rowHeight);
+    }
+    
+    /*
+     * Works out the position of each column from the widest cell in it, and
+     * rebinds every row to show its text truncated to the new widths.  The
+     * description column takes whatever space the other columns leave.
+     */
+    private void layoutColumns() {
+        double stageWidth = (Double) settings.get("stageWidth");
+        double c2Width = Math.max(cellWidth[1], headerWidth[1])+10;
+        double c3Width = Math.max(cellWidth[2], headerWidth[2])+10;
+        double c4Width = Math.max(cellWidth[3], headerWidth[3])+10;
+        double c1MaxWidth = stageWidth-20-c2Width-c3Width-c4Width;
+        if(c1MaxWidth != columnMaxWidth[0]) {
+            columnMaxWidth[0] = c1MaxWidth;
+            cellWidth[0] = getColumnWidth(0);
+        }
+        double c1Width = Math.max(cellWidth[0], headerWidth[0])+10;
+        columnX[0] = 10;
+        columnX[1] = c1Width+10;
+        columnX[2] = c1Width+c2Width+10;
+        columnX[3] = c1Width+c2Width+c3Width+10;
+        for(int col = 0; col < headers.length; col++) {
+            headers[col].setLayoutX(columnX[col]);
+            headers[col].setVisible(!rows.isEmpty());
+        }
+        for(TableRow r : rowPool) {
+            for(int col = 0; col < r.cells.length; col++) {
+                r.cells[col].setLayoutX(columnX[col]);
+            }
+            r.index = -1;
+        }
+    }
+    
+    /*
+     * Moves the rows so that the table appears scrolled down by the given
+     * distance, and binds each row to the activity now at its position
+     */
+    private void scrollTable(double offset) {
+        scrollOffset = offset;
+        int first = (int) (offset / rowHeight);
+        for(int i = 0; i < rowPool.length; i++) {
+            bindRow(rowPool[i], first + i);
+        }
+    }
+    
+    /*
+     * Shows the index-th row of the table in the given row, or hides the row if
+     * the table has no such row.  Row rows.size() is the TOTAL row.
+     */
+    private void bindRow(TableRow r, int index) {
+        if(index > rows.size()) {
+            r.setVisible(false);
+            r.index = -1;
+            return;
+        }
+        r.setVisible(true);
+        r.setLayoutY(index*rowHeight - scrollOffset);
+        if(r.index != index) {
+            r.index = index;
+            r.bg.setFill( (index%2==0)
+                    ?(Paint) settings.get("tableRow1BGPaint")
+                    :(Paint) settings.get("tableRow2BGPaint") );
+            for(int col = 0; col < r.cells.length; col++) {
+                r.cells[col].setText(fitText(getCellText(index, col), columnMaxWidth[col]));
+            }
+        }
+    }
+    
+    /**
+     * Adds a row to the table for a comp learning activity that has just been
+     * added to the year in view.  Only the rows that move, and the TOTAL row,
+     * are redrawn.  Activities belonging to other years are ignored.
+     * @param c the comp learning activity that was added
+     */
+    public void activityAdded(CLActivity c) {
+        if(!data.contains(c) || findRow(c) >= 0) {
+            return;
+        }
+        String desc = c.getDesc();
+        int row = findGroupEnd(desc);
+        boolean newGroup = (row == 0 || !rows.get(row - 1).getDesc().equals(desc));
+        String oldTotal = getCellText(rows.size(), 3);
+        rows.add(row, c);
+        totalHours = data.getSummary().getTotalHours();
+        boolean widthsChanged = newGroup && cellAdded(0, desc);
+        for(int col = 1; col < cellWidth.length; col++) {
+            widthsChanged |= cellAdded(col, getCellText(row, col));
+        }
+        widthsChanged |= totalChanged(oldTotal);
+        rowsChanged(row, widthsChanged, true);
+    }
+    
+    /**
+     * Removes the row showing the given comp learning activity from the table,
+     * if there is one.  Only the rows that move, and the TOTAL row, are
+     * redrawn.
+     * @param c the comp learning activity that was removed
+     */
+    public void activityRemoved(CLActivity c) {
+        int row = findRow(c);
+        if(row < 0) {
+            return;
+        }
+        String desc = c.getDesc();
+        boolean groupRemoved = (row == 0 || !rows.get(row - 1).getDesc().equals(desc))
+                && (row + 1 == rows.size() || !rows.get(row + 1).getDesc().equals(desc));
+        String[] oldText = getRowText(row);
+        String oldTotal = getCellText(rows.size(), 3);
+        rows.remove(row);
+        totalHours = data.getSummary().getTotalHours();
+        boolean widthsChanged = groupRemoved && cellRemoved(0, desc);
+        for(int col = 1; col < cellWidth.length; col++) {
+            widthsChanged |= cellRemoved(col, oldText[col]);
+        }
+        widthsChanged |= totalChanged(oldTotal);
+        rowsChanged(row, widthsChanged, true);
+    }
+    
+    /**
+     * Updates the table after a comp learning activity has been replaced by an
+     * edited version.  If the description is unchanged, the edited activity
+     * keeps its row and only that row and the TOTAL row are redrawn; otherwise
+     * this is the same as removing one activity and adding the other.
+     * @param old the comp learning activity before the edit
+     * @param c the comp learning activity after the edit
+     */
+    public void activityReplaced(CLActivity old, CLActivity c) {
+        int row = findRow(old);
+        if(row < 0 || !old.getDesc().equals(c.getDesc()) || !data.contains(c)) {
+            activityRemoved(old);
+            activityAdded(c);
+            return;
+        }
+        String[] oldText = getRowText(row);
+        String oldTotal = getCellText(rows.size(), 3);
+        rows.set(row, c);
+        totalHours = data.getSummary().getTotalHours();
+        boolean widthsChanged = false;
+        for(int col = 1; col < cellWidth.length; col++) {
+            String text = getCellText(row, col);
+            if(!text.equals(oldText[col])) {
+                widthsChanged |= cellAdded(col, text) || cellRemoved(col, oldText[col]);
+            }
+        }
+        widthsChanged |= totalChanged(oldTotal);
+        for(TableRow r : rowPool) {
+            if(r.index == row) {
+                r.index = -1;
+            }
+        }
+        rowsChanged(rows.size(), widthsChanged, false);
+    }
+    
+    /*
+     * Redraws the table after its rows have changed from the given row onward.
+     * Rows before that are left alone unless the column widths have changed.
+     */
+    private void rowsChanged(int from, boolean widthsChanged, boolean sizeChanged) {
+        if(widthsChanged) {
+            layoutColumns();
+        } else {
+            for(TableRow r : rowPool) {
+                if(r.index >= from) {
+                    r.index = -1;
+                }
+            }
+            for(Text header : headers) {
+                header.setVisible(!rows.isEmpty());
+            }
+        }
+        if(sizeChanged) {
+            scrollBar.setContentHeight((rows.size() + 1) * rowHeight);
+        } else {
+            scrollTable(scrollOffset);
+        }
+    }
+    
+    /*
+     * Records a cell that has been added to the table, returning true if it is
+     * the new widest cell in its column
+     */
+    private boolean cellAdded(int col, String text) {
+        double width = getTextWidth(fitText(text, columnMaxWidth[col]));
+        if(width > cellWidth[col]) {
+            cellWidth[col] = width;
+            return true;
+        }
+        return false;
+    }
+    
+    /*
+     * Records a cell that has been removed from the table.  If it may have been
+     * the widest cell in its column, the column is measured again; returns
+     * true if the width of the column changed.
+     */
+    private boolean cellRemoved(int col, String text) {
+        if(text.isEmpty()
+                || getTextWidth(fitText(text, columnMaxWidth[col])) < cellWidth[col]) {
+            return false;
+        }
+        double oldWidth = cellWidth[col];
+        cellWidth[col] = getColumnWidth(col);
+        return cellWidth[col] != oldWidth;
+    }
+    
+    private boolean totalChanged(String oldTotal) {
+        String total = getCellText(rows.size(), 3);
+        return !total.equals(oldTotal) && (cellAdded(3, total) | cellRemoved(3, oldTotal));
+    }
+    
+    /*
+     * Finds the row showing the given activity, or returns -1.  Rows are
+     * grouped by description in sorted order, so only the activity's own group
+     * is searched.
+     */
+    private int findRow(CLActivity c) {
+        String desc = c.getDesc();
+        for(int row = findGroupStart(desc); row < rows.size()
+                && rows.get(row).getDesc().equals(desc); row++) {
+            if(rows.get(row) == c) {
+                return row;
+            }
+        }
+        return -1;
+    }
+    
+    /*
+     * Returns the first row whose description is not before desc
+     */
+    private int findGroupStart(String desc) {
+        int lo = 0, hi = rows.size();
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(rows.get(mid).getDesc().compareTo(desc) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    /*
+     * Returns the first row whose description is after desc
+     */
+    private int findGroupEnd(String desc) {
+        int lo = 0, hi = rows.size();
+        while(lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if(rows.get(mid).getDesc().compareTo(desc) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    private String[] getRowText(int row) {
+        String[] text = new String[4];
+        for(int col = 0; col < text.length; col++) {
+            text[col] = getCellText(row, col);
+        }
+        return text;
+    }
+    
+    /*
+     * Returns the text to be displayed in the given row and column of the
+     * table.  The description is only shown in the first row of each group.
+     */
+    private String getCellText(int row, int col) {
+        if(row == rows.size()) {
+            switch(col) {
+                case 2: return "TOTAL";
+                case 3: return Double.toString(totalHours);
+                default: return "";
+            }
+        }
+        CLActivity c = rows.get(row);
+        switch(col) {
+            case 0: return (row == 0 || !rows.get(row - 1).getDesc().equals(c.getDesc()))
+                    ? c.getDesc() : "";
+            case 1: return DateCodec.format(c.getEpochDay());
+            case 2: return c.getContact().getName();
+            default: return Double.toString(c.getHours());
+        }
     }
     
     /*
-     * Creates the background rectangle for the row-th row of the table.  This
-     * row is formatted according to the settings contained in the GUI
-     * settings.
-     */
-    private Rectangle getTableRowRect(int row, double dataRowHeight, 
-            final CLActivity c, final HelpHint hh) {
-        Rectangle r = new Rectangle();
-        r.setWidth((Double) settings.get("stageWidth") - 20 - (Double) settings.get("scrollbarWidth"));
-        r.setHeight(dataRowHeight);
-        r.setArcHeight(dataRowHeight/2);
-        r.setArcWidth(dataRowHeight/2);
-        r.setFill( (row%2==0)
-                ?(Paint) settings.get("tableRow1BGPaint")
-                :(Paint) settings.get("tableRow2BGPaint") );
-        r.setLayoutX(0); r.setLayoutY(row*dataRowHeight);
-        if(c != null) {
-            r.setOnMouseClicked(new EventHandler<MouseEvent>() {
+     * Finds the width of the widest cell in one column of the table, after
+     * truncation to the column's maximum width
+     */
+    private double getColumnWidth(int col) {
+        double width = 0;
+        for(int row = 0; row <= rows.size(); row++) {
+            String text = getCellText(row, col);
+            if(!text.isEmpty()) {
+                width = Math.max(width, getTextWidth(fitText(text, columnMaxWidth[col])));
+            }
+        }
+        return width;
+    }
+    
+    private double getTextWidth(String s) {
+        return metrics.getWidth(s);
+    }
+    
+    /*
+     * Truncates text that is too wide for a column with the given maximum
+     * width, and adds an ellipsis ... to it.
+     */
+    private String fitText(String s, double maxWidth) {
+        return metrics.fit(s, maxWidth);
+    }
+    
+    /*
+     * One row of the table: a background rectangle formatted according to the
+     * GUI settings, and a Text for each column.  Rows are reused as the table
+     * scrolls, so the handlers look up the activity currently shown.
+     */
+    private class TableRow extends Group {
+        private final Rectangle bg = new Rectangle();
+        private final Text[] cells = new Text[4];
+        private int index = -1;
+        
+        TableRow() {
+            bg.setWidth((Double) settings.get("stageWidth") - 20 - (Double) settings.get("scrollbarWidth"));
+            bg.setHeight(rowHeight);
+            bg.setArcHeight(rowHeight/2);
+            bg.setArcWidth(rowHeight/2);
+            getChildren().add(bg);
+            for(int col = 0; col < cells.length; col++) {
+                cells[col] = new Text();
+                cells[col].setTextOrigin(VPos.CENTER);
+                cells[col].setFont((Font) settings.get("tableDataTextFont"));
+                cells[col].setFill((Paint) settings.get("tableDataTextPaint"));
+                cells[col].setLayoutY(rowHeight/2);
+                cells[col].setMouseTransparent(true);
+                getChildren().add(cells[col]);
+            }
+            bg.setOnMouseClicked(new EventHandler<MouseEvent>() {
 
                 @Override
                 public void handle(MouseEvent event) {
+                    if(index < 0 || index >= rows.size()) {
+                        return;
+                    }
+                    CLActivity c = rows.get(index);
                     if(event.getButton() == MouseButton.PRIMARY) {
                         detailRequest.action(c);
                     } else if(event.getButton() == MouseButton.SECONDARY) {
@@ -559,49 +1004,48 @@ public class MainScreen extends Screen {
                     }
                 }
             });
-        }
-        final double stageHeight = (Double) settings.get("stageHeight");
-        final double stageWidth = (Double) settings.get("stageWidth");
-        r.setOnMouseEntered(new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent t) {
-                if(helpEnabled) {
-                    if(t.getSceneX() + hh.getWidth() > stageWidth) {
-                        hh.setLayoutX(t.getSceneX() - hh.getWidth());
-                    } else {
-                        hh.setLayoutX(t.getSceneX());
-                    }
-                    if(t.getSceneY() + hh.getHeight() > stageHeight) {
-                        hh.setLayoutY(t.getSceneY() - hh.getHeight());
-                    } else {
-                        hh.setLayoutY(t.getSceneY());
+            final double stageHeight = (Double) settings.get("stageHeight");
+            final double stageWidth = (Double) settings.get("stageWidth");
+            bg.setOnMouseEntered(new EventHandler<MouseEvent>() {
+                @Override
+                public void handle(MouseEvent t) {
+                    if(helpEnabled) {
+                        HelpHint hh = (index == rows.size()) ? hhTableTotal : hhTable;
+                        if(t.getSceneX() + hh.getWidth() > stageWidth) {
+                            hh.setLayoutX(t.getSceneX() - hh.getWidth());
+                        } else {
+                            hh.setLayoutX(t.getSceneX());
+                        }
+                        if(t.getSceneY() + hh.getHeight() > stageHeight) {
+                            hh.setLayoutY(t.getSceneY() - hh.getHeight());
+                        } else {
+                            hh.setLayoutY(t.getSceneY());
+                        }
+                        MainScreen.this.getChildren().add(hh);
                     }
-                    MainScreen.this.getChildren().add(hh);
                 }
-            }
-        });
-        r.setOnMouseExited(new EventHandler<MouseEvent>() {
-            @Override
-            public void handle(MouseEvent t) {
-                if(helpEnabled) {
-                    MainScreen.this.getChildren().remove(hh);
+            });
+            bg.setOnMouseExited(new EventHandler<MouseEvent>() {
+                @Override
+                public void handle(MouseEvent t) {
+                    if(helpEnabled) {
+                        MainScreen.this.getChildren().removeAll(hhTable, hhTableTotal);
+                    }
                 }
-            }
-        });
-        return r;
+            });
+        }
     }
 
     /**
      * Updates the main screen - title and table are re-initialized.  Should be
-     * called after <code>CLActivity</code>s have been added or modified and the
-     * table needs to be updated to reflect those changes.
+     * called after many <code>CLActivity</code>s have been changed at once and
+     * the whole table needs to be updated to reflect those changes.
      */
     public void update() {
 //        System.out.println("setting data to "+data.getYearString());
         title.setText(this.data.getYearString());
         layoutTitle();
-        table.getChildren().clear();
-        getTable();
+        loadTable();
     }
     
 }
@@ -36,7 +36,8 @@ public class Screen extends Group {
     
     public Screen(final Stage primaryStage, HashMap<String, Object> settings, String screenType) {
         switch(screenType) {
-            case "main": case "detail": case "home": case "data": break;
+            case "main": case "detail": case "home": case "data":
+            case "statistics": case "search": break;
             default: throw new IllegalArgumentException("Invalid screen type: "+screenType);
         }
         windowBGPaint = (Paint) settings.get(screenType+"screenBGPaint");
@@ -1,5 +1,6 @@
 package honorscltracker.graphics;
 
+import honorscltracker.Handler;
 import java.util.HashMap;
 import javafx.event.EventHandler;
 import javafx.scene.Group;
@@ -15,7 +16,9 @@ import javafx.scene.shape.Rectangle;
  */
 public class Scrollbar extends Group {
     private double availableSpace, topPad, bottomPad, minClipY, scrollStartY;
+    private double contentHeight, offset;
     private Node n;
+    private Handler scrollHandler;
     private final HashMap<String, Object> settings;
     
     /**
@@ -54,6 +57,36 @@ public class Scrollbar extends Group {
         init();
     }
     
+    /**
+     * Creates a new scrollbar for content that is not laid out as a single
+     * node, such as a table that only creates nodes for the rows in view.
+     * Instead of moving a node, the scrollbar passes the distance from the top
+     * of the content to the top of the visible area (as a <code>Double</code>)
+     * to <code>scrollHandler</code> whenever it moves.  The caller is
+     * responsible for clipping and positioning the content.
+     * @param availableSpace the vertical space available in which to display
+     * the content
+     * @param topPad padding within the available space, above the content.
+     * <code>topPad &lt; 0</code> will be treated as 0.
+     * @param bottomPad padding within the available space, below the content.
+     * <code>bottomPad &lt; 0</code> will be treated as 0.
+     * @param contentHeight the total height of the content
+     * @param scrollHandler the handler to be called when the scrollbar moves
+     * @param settings GUI settings governing the appearance of the scrollbar
+     */
+    public Scrollbar(final double availableSpace, final double topPad,
+            double bottomPad, double contentHeight, Handler scrollHandler,
+            HashMap<String, Object> settings) {
+        this.availableSpace = availableSpace;
+        this.topPad = Math.max(topPad, 0);
+        this.bottomPad = Math.max(bottomPad, 0);
+        this.contentHeight = contentHeight;
+        this.scrollHandler = scrollHandler;
+        this.settings = settings;
+        
+        init();
+    }
+    
     /*
      * Initializes the scrollbar. I'm honestly not sure how this works at this
      * point, but it does work (and it took me a long time to figure out how to
@@ -61,7 +94,8 @@ public class Scrollbar extends Group {
      */
     private void init() {
         final double scrollbarWidth = (Double) settings.get("scrollbarWidth");
-        final double height = n.getBoundsInLocal().getHeight() + topPad + bottomPad;
+        final double height = ((n != null) ? n.getBoundsInLocal().getHeight() : contentHeight)
+                + topPad + bottomPad;
         double scrollSpace = availableSpace - scrollbarWidth;
         final double barHeight = Math.max(scrollbarWidth, scrollSpace*Math.min(1, availableSpace/height));
         
@@ -95,7 +129,13 @@ public class Scrollbar extends Group {
                 scrollbarWidth-2, scrollbarWidth/2-1, scrollbarWidth/2-1, 0.0);
         bar.setFill((Paint) settings.get("scrollbarFGPaint"));
         bar.setStroke((Paint) settings.get("scrollbarFGStroke"));
-        bar.relocate(0, scrollbarWidth/2-1);
+        
+        final double minY = scrollbarWidth/2;
+        final double maxY = availableSpace-scrollbarWidth/2;
+        //keep the content where it was, as far as the new height allows
+        offset = Math.max(0, Math.min(offset, height - (availableSpace - topPad - bottomPad)));
+        double barY = (offset == 0) ? scrollbarWidth/2-1 : minY + offset/height*(maxY-minY);
+        bar.relocate(0, barY);
         
         bar.setOnMousePressed(new EventHandler<MouseEvent>() {
             @Override
@@ -104,18 +144,27 @@ public class Scrollbar extends Group {
             }
         });
         
-        final Rectangle clip = new Rectangle(0, 0, n.getBoundsInLocal().getWidth(), availableSpace-topPad-bottomPad);
-        n.setClip(clip);
+        final Rectangle clip;
+        if(n != null) {
+            clip = new Rectangle(0, 0, n.getBoundsInLocal().getWidth(), availableSpace-topPad-bottomPad);
+            n.setClip(clip);
+        } else {
+            clip = null;
+            scrollHandler.action(offset);
+        }
         bar.setOnMouseDragged(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent arg0) {
-                double minY = scrollbarWidth/2;
-                double maxY = availableSpace-scrollbarWidth/2;
                 double newY = Math.max(minY, Math.min(arg0.getSceneY() - scrollStartY, maxY-barHeight));
                 bar.setLayoutY(newY);
                 double newClipY = ((newY-minY)/(maxY-minY))*height;
-                clip.setLayoutY(newClipY);
-                n.setLayoutY(minClipY+topPad-newClipY);
+                offset = newClipY;
+                if(clip != null) {
+                    clip.setLayoutY(newClipY);
+                    n.setLayoutY(minClipY+topPad-newClipY);
+                } else {
+                    scrollHandler.action(newClipY);
+                }
             }
         });
         getChildren().add(bar);
@@ -131,8 +180,35 @@ public class Scrollbar extends Group {
      */
     public void setNode(Node n) {
         this.n = n;
+        offset = 0;
+        getChildren().clear();
+        init();
+    }
+    
+    /**
+     * Sets the height of the content controlled by this scrollbar, for a
+     * scrollbar created without a node.  The scrollbar is reinitialized to
+     * reflect the new height, keeping the visible part of the content in place
+     * as far as possible, and the scroll handler is called with the resulting
+     * position.
+     * @param contentHeight the new height of the content
+     * @see #Scrollbar(double,double,double,double,Handler,HashMap)
+     */
+    public void setContentHeight(double contentHeight) {
+        this.contentHeight = contentHeight;
         getChildren().clear();
         init();
     }
     
+    /**
+     * Sets the height of the content controlled by this scrollbar, as
+     * {@link #setContentHeight(double)} does, but scrolls back to the top of
+     * the content.
+     * @param contentHeight the new height of the content
+     */
+    public void reset(double contentHeight) {
+        offset = 0;
+        setContentHeight(contentHeight);
+    }
+    
 }
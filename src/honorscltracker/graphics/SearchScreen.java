@@ -0,0 +1,239 @@
+package honorscltracker.graphics;
+
+import honorscltracker.core.CLActivity;
+import honorscltracker.core.DateCodec;
+import honorscltracker.Handler;
+import honorscltracker.core.SearchIndex;
+import java.util.HashMap;
+import java.util.List;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.event.EventHandler;
+import javafx.geometry.VPos;
+import javafx.scene.Group;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+
+/**
+ * GUI screen for finding comp learning activities in any year by the words in
+ * their description, contact information and details.  The results are
+ * refreshed as the user types, using the {@link SearchIndex} of the open
+ * file.  Clicking a result shows the details of that activity.  Also contains
+ * a button to navigate back to the main screen.
+ * @author Connor Pierce
+ */
+public class SearchScreen extends Screen {
+    private static final int MAX_RESULTS = 25;
+    private final HashMap<String, Object> settings; //GUI settings
+    private final TextField queryField; //where the user types the search
+    private final Text status; //number of results and time taken
+    private final Group results; //the matching activities
+    private final TextMetrics metrics;
+    private final double rowHeight;
+    private SearchIndex index;
+    private Handler mainscreenRequest;
+    private Handler detailRequest; //handler called when user clicks a result
+
+    /**
+     * Creates a SearchScreen with no search index, and with its appearance
+     * governed by the given GUI settings.
+     * @param primaryStage JavaFX stage for this application
+     * @param settings GUI settings
+     */
+    public SearchScreen(Stage primaryStage, HashMap<String, Object> settings) {
+        super(primaryStage, settings, "search");
+        this.settings = settings;
+        double stageWidth = (Double) settings.get("stageWidth");
+
+        Text title = new Text("Search");
+        title.setFont((Font) settings.get("searchscreenLabelFont"));
+        title.setFill((Paint) settings.get("searchscreenLabelPaint"));
+        title.setTextOrigin(VPos.TOP);
+        title.setLayoutX((stageWidth - title.getBoundsInParent().getWidth())/2);
+        title.setLayoutY(20);
+        getChildren().add(title);
+
+        queryField = new TextField();
+        queryField.setPromptText("Search descriptions, contacts and details");
+        queryField.setPrefWidth(stageWidth - 60);
+        queryField.setLayoutX(30);
+        queryField.setLayoutY(65);
+        queryField.textProperty().addListener(new ChangeListener<String>() {
+
+            @Override
+            public void changed(ObservableValue<? extends String> ov, String oldText, String newText) {
+                search(newText);
+            }
+        });
+        getChildren().add(queryField);
+
+        metrics = TextMetrics.get((Font) settings.get("searchscreenTextFont"));
+        Text t = new Text("T");
+        t.setFont((Font) settings.get("searchscreenTextFont"));
+        rowHeight = t.getBoundsInParent().getHeight() + 3;
+
+        status = getText("", 30, 100);
+        getChildren().add(status);
+        results = new Group();
+        results.setLayoutY(100 + rowHeight + 5);
+        getChildren().add(results);
+
+        Group backButton = new Group();
+        Rectangle backButtonBg = new Rectangle(6, 30);
+        backButtonBg.setStroke((Paint) settings.get("searchscreenButtonOutlinePaint"));
+        backButtonBg.setFill((Paint) settings.get("searchscreenButtonBGPaint"));
+        backButton.getChildren().add(backButtonBg);
+        Polygon backButtonFg = new Polygon();
+        backButtonFg.getPoints().addAll(3.0,0.0,3.0,4.0,0.0,2.0);
+        backButtonFg.setFill((Paint) settings.get("searchscreenButtonFGPaint"));
+        backButtonFg.setLayoutX(1.5); backButtonFg.setLayoutY(13);
+        backButton.getChildren().add(backButtonFg);
+        backButton.setLayoutX(stageWidth - 8.5);
+        backButton.setLayoutY(((Double) settings.get("stageHeight") - 35)/2+10);
+        backButton.setOnMouseClicked(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent arg0) {
+                mainscreenRequest.action(null);
+            }
+        });
+        final HelpHint hhBackButton = new HelpHint((Paint) settings.get("searchscreenBGStroke"),
+                (Paint) settings.get("searchscreenBGPaint"),
+                (Paint) settings.get("searchscreenBGStroke"),
+                "Click to return to comp learning table");
+        hhBackButton.setLayoutX(stageWidth - 10 - hhBackButton.getBoundsInParent().getWidth());
+        hhBackButton.setLayoutY(backButton.getLayoutY() + 15);
+        hhBackButton.setVisible(false);
+        backButton.setOnMouseEntered(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                if(helpEnabled) {
+                    hhBackButton.setVisible(true);
+                }
+            }
+        });
+        backButton.setOnMouseExited(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                if(helpEnabled) {
+                    hhBackButton.setVisible(false);
+                }
+            }
+        });
+        getChildren().add(backButton);
+        getChildren().add(hhBackButton);
+    }
+
+    /**
+     * Set the handler to be called when the user clicks the 'return to main
+     * screen' button.
+     * @param h the handler to be called when the user clicks the 'return to
+     * main screen' button
+     */
+    public void setMainScreenRequestHandler(Handler h) {
+        mainscreenRequest = h;
+    }
+
+    /**
+     * Sets the handler to be called when the user clicks on one of the
+     * results.  The <code>CLActivity</code> that was clicked is passed to the
+     * <code>action</code> method.
+     * @param h the handler to be called when the user clicks on a result
+     */
+    public void setDetailRequestHandler(Handler h) {
+        detailRequest = h;
+    }
+
+    /**
+     * Sets the index to search, and repeats the current search against it.
+     * @param index the search index of the open file
+     */
+    public void setSearchIndex(SearchIndex index) {
+        this.index = index;
+        search(queryField.getText());
+    }
+
+    /*
+     * Runs the query and displays the results
+     */
+    private void search(String query) {
+        results.getChildren().clear();
+        if(index == null || query == null || query.trim().isEmpty()) {
+            status.setText("");
+            return;
+        }
+        long start = System.nanoTime();
+        List<CLActivity> found = index.search(query, MAX_RESULTS);
+        long elapsed = System.nanoTime() - start;
+        double stageWidth = (Double) settings.get("stageWidth");
+        double y = 0;
+        for(CLActivity c : found) {
+            results.getChildren().add(getRow(c, y, stageWidth));
+            y += rowHeight;
+        }
+        status.setText(((found.size() < MAX_RESULTS) ? found.size() + " results"
+                : "First " + MAX_RESULTS + " results") + " ("
+                + String.format("%.2f", elapsed / 1e6) + " ms)");
+    }
+
+    /*
+     * One result, showing the activity's date, description, contact and hours
+     */
+    private Group getRow(final CLActivity c, double y, double stageWidth) {
+        Group row = new Group();
+        final Rectangle bg = new Rectangle(stageWidth - 60, rowHeight);
+        bg.setFill(Color.TRANSPARENT);
+        row.getChildren().add(bg);
+        double descWidth = (stageWidth - 60 - 80 - 60) * 0.6;
+        double contactWidth = (stageWidth - 60 - 80 - 60) * 0.4;
+        row.getChildren().add(getText(DateCodec.format(c.getEpochDay()), 0, 0));
+        row.getChildren().add(getText(metrics.fit(c.getDesc(), descWidth), 80, 0));
+        String contact = (c.getContact() == null) ? "" : c.getContact().getName();
+        row.getChildren().add(getText(metrics.fit(contact, contactWidth), 80 + descWidth, 0));
+        row.getChildren().add(getText(Double.toString(c.getHours()), stageWidth - 110, 0));
+        row.setLayoutX(30);
+        row.setLayoutY(y);
+        row.setOnMouseEntered(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                bg.setFill((Paint) settings.get("searchscreenHighlightPaint"));
+            }
+        });
+        row.setOnMouseExited(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                bg.setFill(Color.TRANSPARENT);
+            }
+        });
+        row.setOnMouseClicked(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                detailRequest.action(c);
+            }
+        });
+        return row;
+    }
+
+    private Text getText(String s, double x, double y) {
+        Text t = new Text(s);
+        t.setTextOrigin(VPos.TOP);
+        t.setFont((Font) settings.get("searchscreenTextFont"));
+        t.setFill((Paint) settings.get("searchscreenTextPaint"));
+        t.setLayoutX(x);
+        t.setLayoutY(y);
+        return t;
+    }
+
+}
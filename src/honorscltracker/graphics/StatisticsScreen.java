@@ -0,0 +1,210 @@
+package honorscltracker.graphics;
+
+import honorscltracker.core.ActivityIndex;
+import honorscltracker.Handler;
+import honorscltracker.core.Year;
+import honorscltracker.core.YearList;
+import java.util.HashMap;
+import java.util.logging.Logger;
+import javafx.event.EventHandler;
+import javafx.geometry.VPos;
+import javafx.scene.Group;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+
+/**
+ * GUI screen that summarizes comp learning activity across every year in the
+ * file: the hours completed in each of the last ten academic years, and the
+ * organizations (activity descriptions) with the most hours overall.  The
+ * figures come from an {@link ActivityIndex}, which is rebuilt each time the
+ * screen is shown.  Also contains a button to navigate back to the main
+ * screen.
+ * @author Connor Pierce
+ */
+public class StatisticsScreen extends Screen {
+    private static final int YEARS_SHOWN = 10;
+    private static final int TOP_DESCS = 20;
+    private final HashMap<String, Object> settings; //GUI settings
+    private final Group content; //the figures currently displayed
+    private Handler mainscreenRequest;
+
+    /**
+     * Creates a StatisticsScreen with no figures, and with its appearance
+     * governed by the given GUI settings.
+     * @param primaryStage JavaFX stage for this application
+     * @param settings GUI settings
+     */
+    public StatisticsScreen(Stage primaryStage, HashMap<String, Object> settings) {
+        super(primaryStage, settings, "statistics");
+        this.settings = settings;
+        double stageWidth = (Double) settings.get("stageWidth");
+
+        Text title = new Text("Statistics");
+        title.setFont((Font) settings.get("statisticsscreenLabelFont"));
+        title.setFill((Paint) settings.get("statisticsscreenLabelPaint"));
+        title.setTextOrigin(VPos.TOP);
+        title.setLayoutX((stageWidth - title.getBoundsInParent().getWidth())/2);
+        title.setLayoutY(20);
+        getChildren().add(title);
+
+        content = new Group();
+        content.setLayoutY(75);
+        getChildren().add(content);
+
+        Group backButton = new Group();
+        Rectangle backButtonBg = new Rectangle(6, 30);
+        backButtonBg.setStroke((Paint) settings.get("statisticsscreenButtonOutlinePaint"));
+        backButtonBg.setFill((Paint) settings.get("statisticsscreenButtonBGPaint"));
+        backButton.getChildren().add(backButtonBg);
+        Polygon backButtonFg = new Polygon();
+        backButtonFg.getPoints().addAll(0.0,0.0,0.0,4.0,3.0,2.0);
+        backButtonFg.setFill((Paint) settings.get("statisticsscreenButtonFGPaint"));
+        backButtonFg.setLayoutX(1.5); backButtonFg.setLayoutY(13);
+        backButton.getChildren().add(backButtonFg);
+        backButton.setLayoutX(2.5);
+        backButton.setLayoutY(((Double) settings.get("stageHeight") - 35)/2+10);
+        backButton.setOnMouseClicked(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent arg0) {
+                mainscreenRequest.action(null);
+            }
+        });
+        final HelpHint hhBackButton = new HelpHint((Paint) settings.get("statisticsscreenBGStroke"),
+                (Paint) settings.get("statisticsscreenBGPaint"),
+                (Paint) settings.get("statisticsscreenBGStroke"),
+                "Click to return to comp learning table");
+        hhBackButton.setLayoutX(10);
+        hhBackButton.setLayoutY(backButton.getLayoutY() + 15);
+        hhBackButton.setVisible(false);
+        backButton.setOnMouseEntered(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                if(helpEnabled) {
+                    hhBackButton.setVisible(true);
+                }
+            }
+        });
+        backButton.setOnMouseExited(new EventHandler<MouseEvent>() {
+
+            @Override
+            public void handle(MouseEvent t) {
+                if(helpEnabled) {
+                    hhBackButton.setVisible(false);
+                }
+            }
+        });
+        getChildren().add(backButton);
+        getChildren().add(hhBackButton);
+    }
+
+    /**
+     * Set the handler to be called when the user clicks the 'return to main
+     * screen' button.
+     * @param h the handler to be called when the user clicks the 'return to
+     * main screen' button
+     */
+    public void setMainScreenRequestHandler(Handler h) {
+        mainscreenRequest = h;
+    }
+
+    /**
+     * Indexes the given comp learning activities and displays statistics for
+     * them.
+     * @param years all of the comp learning activities in the file
+     */
+    public void update(YearList years) {
+        long start = System.nanoTime();
+        ActivityIndex index = ActivityIndex.build(years);
+        long built = System.nanoTime();
+        content.getChildren().clear();
+        double stageWidth = (Double) settings.get("stageWidth");
+        double rowHeight = getRowHeight();
+
+        //hours per year, for the last YEARS_SHOWN years with activities
+        content.getChildren().add(getText("Hours per year", 20, 0, true));
+        if(index.size() == 0) {
+            content.getChildren().add(getText("No comp learning activities", 20, rowHeight, false));
+            return;
+        }
+        int lastYear = index.getLastYear();
+        int firstYear = Math.max(index.getFirstYear(), lastYear - YEARS_SHOWN + 1);
+        double[] yearHours = index.hoursByYear(firstYear, lastYear);
+        double barSpace = stageWidth/2 - 170;
+        double max = 0;
+        for(double h : yearHours) {
+            max = Math.max(max, h);
+        }
+        double y = rowHeight;
+        for(int i = yearHours.length - 1; i >= 0; i--) {
+            content.getChildren().add(getText(new Year(firstYear + i).getYearString(), 20, y, false));
+            content.getChildren().add(getBar(90, y, rowHeight, (max > 0) ? barSpace * yearHours[i] / max : 0));
+            content.getChildren().add(getText(format(yearHours[i]), 95 + barSpace, y, false));
+            y += rowHeight;
+        }
+        //summed by description, since the years may be spread far apart
+        double[] descHours = index.hoursByDesc();
+        double total = 0;
+        for(double h : descHours) {
+            total += h;
+        }
+        y += rowHeight;
+        content.getChildren().add(getText(index.size() + " activities, "
+                + format(total) + " hours in all", 20, y, false));
+
+        //the descriptions with the most hours
+        double x = stageWidth/2 + 10;
+        content.getChildren().add(getText("Top organizations by hours", x, 0, true));
+        int[] top = index.topDescs(TOP_DESCS);
+        TextMetrics metrics = TextMetrics.get((Font) settings.get("statisticsscreenTextFont"));
+        double nameWidth = stageWidth - x - 90;
+        y = rowHeight;
+        for(int i = 0; i < top.length; i++) {
+            String name = (i + 1) + ". " + index.getDescName(top[i]);
+            content.getChildren().add(getText(metrics.fit(name, nameWidth), x, y, false));
+            content.getChildren().add(getText(format(descHours[top[i]]), stageWidth - 80, y, false));
+            y += rowHeight;
+        }
+        Logger.getLogger(StatisticsScreen.class.getName()).fine("Statistics for "
+                + index.size() + " activities: indexed in " + (built - start) / 1000000
+                + " ms, queried in " + (System.nanoTime() - built) / 1000000 + " ms");
+    }
+
+    private double getRowHeight() {
+        Text t = new Text("T");
+        t.setFont((Font) settings.get("statisticsscreenTextFont"));
+        return t.getBoundsInParent().getHeight() + 3;
+    }
+
+    private Text getText(String s, double x, double y, boolean heading) {
+        Text t = new Text(s);
+        t.setTextOrigin(VPos.TOP);
+        t.setFont((Font) settings.get(heading ? "statisticsscreenHeadingFont"
+                : "statisticsscreenTextFont"));
+        t.setFill((Paint) settings.get("statisticsscreenTextPaint"));
+        t.setLayoutX(x);
+        t.setLayoutY(heading ? y - 8 : y);
+        return t;
+    }
+
+    private Rectangle getBar(double x, double y, double rowHeight, double width) {
+        Rectangle r = new Rectangle(x, y + 2, Math.max(width, 1), rowHeight - 4);
+        r.setFill((Paint) settings.get("statisticsscreenBarPaint"));
+        return r;
+    }
+
+    /*
+     * Formats a number of hours, dropping the fraction when there is none
+     */
+    private static String format(double hours) {
+        return (hours == Math.rint(hours) && Math.abs(hours) < 1e15)
+                ? Long.toString((long) hours) : String.format("%.2f", hours);
+    }
+
+}
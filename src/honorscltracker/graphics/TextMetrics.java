@@ -0,0 +1,168 @@
+package honorscltracker.graphics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * Measures and truncates text in a given font without adding nodes to the
+ * scene.  The advance width of each character is measured once, the first
+ * time it is needed, and the width of a string is the sum of the widths of
+ * its characters (kerning is ignored).  Truncated strings are remembered, so
+ * fitting the same text to the same width again costs a single lookup.
+ *
+ * Instances are shared per <code>Font</code> through {@link #get(Font)}, and
+ * must only be used on the JavaFX application thread.
+ * @author Connor Pierce
+ */
+public class TextMetrics {
+    private static final String ELLIPSIS = "...";
+    private static final int FITTED_CACHE_SIZE = 4096;
+    private static final HashMap<Font, TextMetrics> cache = new HashMap<>();
+
+    private final Text measure;
+    private final double[][] widths = new double[256][]; //by high byte, low byte
+    private final double ellipsisWidth;
+    private final LinkedHashMap<Fitted, String> fitted =
+            new LinkedHashMap<Fitted, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Fitted, String> eldest) {
+                    return size() > FITTED_CACHE_SIZE;
+                }
+            };
+
+    private TextMetrics(Font font) {
+        measure = new Text();
+        measure.setFont(font);
+        ellipsisWidth = getWidth(ELLIPSIS);
+    }
+
+    /**
+     * Returns the metrics for the given font, creating them the first time
+     * the font is used.
+     * @param font the font in which text will be displayed
+     * @return the metrics for <code>font</code>
+     */
+    public static TextMetrics get(Font font) {
+        TextMetrics m = cache.get(font);
+        if(m == null) {
+            m = new TextMetrics(font);
+            cache.put(font, m);
+        }
+        return m;
+    }
+
+    /**
+     * Returns the width of the given character in this font.
+     * @param c the character to measure
+     * @return the advance width of <code>c</code>
+     */
+    public double getWidth(char c) {
+        double[] page = widths[c >>> 8];
+        if(page == null) {
+            page = new double[256];
+            Arrays.fill(page, -1);
+            widths[c >>> 8] = page;
+        }
+        double w = page[c & 0xFF];
+        if(w < 0) {
+            measure.setText(String.valueOf(c));
+            w = measure.getLayoutBounds().getWidth();
+            page[c & 0xFF] = w;
+        }
+        return w;
+    }
+
+    /**
+     * Returns the width of the given string in this font.
+     * @param s the string to measure
+     * @return the sum of the widths of the characters in <code>s</code>
+     */
+    public double getWidth(String s) {
+        double w = 0;
+        for(int i = 0; i < s.length(); i++) {
+            w += getWidth(s.charAt(i));
+        }
+        return w;
+    }
+
+    /**
+     * Fits text into a column of the given width.  Text no wider than
+     * <code>maxWidth - 4</code> is returned unchanged; longer text is cut to
+     * the longest prefix that, followed by an ellipsis ..., still fits.  A
+     * <code>maxWidth</code> that is not positive means the column has no
+     * limit.
+     * @param s the text to fit
+     * @param maxWidth the width of the column
+     * @return <code>s</code>, or a truncated copy of it ending in ...
+     */
+    public String fit(String s, double maxWidth) {
+        if(!(maxWidth > 0)) {
+            return s;
+        }
+        Fitted key = new Fitted(s, maxWidth);
+        String result = fitted.get(key);
+        if(result == null) {
+            result = truncate(s, maxWidth - 4);
+            fitted.put(key, result);
+        }
+        return result;
+    }
+
+    /*
+     * Binary search over the cumulative widths of the characters of s for the
+     * longest prefix that leaves room for the ellipsis
+     */
+    private String truncate(String s, double available) {
+        double[] cumulative = new double[s.length() + 1];
+        for(int i = 0; i < s.length(); i++) {
+            cumulative[i + 1] = cumulative[i] + getWidth(s.charAt(i));
+        }
+        if(cumulative[s.length()] <= available) {
+            return s;
+        }
+        double limit = available - ellipsisWidth;
+        int lo = 0, hi = s.length();
+        while(lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if(cumulative[mid] <= limit) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return s.substring(0, lo) + ELLIPSIS;
+    }
+
+    /*
+     * Key for the cache of truncated text
+     */
+    private static class Fitted {
+        private final String text;
+        private final double width;
+
+        Fitted(String text, double width) {
+            this.text = text;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Fitted)) {
+                return false;
+            }
+            Fitted other = (Fitted) obj;
+            return width == other.width && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            long w = Double.doubleToLongBits(width);
+            return 31 * text.hashCode() + (int) (w ^ (w >>> 32));
+        }
+    }
+
+}